@@ -1,13 +1,23 @@
 package com.bigcompany.analyzer;
 
 import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.AnalysisCache;
+import com.bigcompany.analyzer.service.ColumnarResultWriter;
 import com.bigcompany.analyzer.service.ComplianceAnalyzer;
 import com.bigcompany.analyzer.service.EmployeeParser;
+import com.bigcompany.analyzer.service.EmployeeSearchIndex;
+import com.bigcompany.analyzer.service.ExternalMemoryAnalyzer;
 import com.bigcompany.analyzer.service.HierarchyBuilder;
+import com.bigcompany.analyzer.service.IncrementalComplianceAnalyzer;
 import com.bigcompany.analyzer.service.ReportGenerator;
+import com.bigcompany.analyzer.service.SubtreeHashes;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
 
 public class OrgAnalyzerApp {
@@ -25,16 +35,67 @@ public class OrgAnalyzerApp {
 
     public static void main(String[] args) {
         String filePath = args.length > 0 ? args[0] : "employees.csv";
+        String option = args.length > 1 ? args[1] : null;
+        boolean externalMemory = "--external".equals(option);
+        boolean cached = "--cache".equals(option);
+        boolean search = "--search".equals(option);
+        boolean export = "--export".equals(option);
+
+        if (option != null && !externalMemory && !cached && !search && !export) {
+            usageError("Unknown option: " + option);
+        }
+        if ((cached || search || export) && args.length < 3) {
+            usageError(option + " requires a value");
+        }
+        boolean compressed = export && args.length > 3 && "--compress".equals(args[3]);
+        int allowedArgs = compressed ? 4 : 3;
+        if (args.length > allowedArgs) {
+            usageError("Unexpected argument: " + args[allowedArgs]);
+        }
+        int maxRecordsInMemory = 100_000;
+        if (externalMemory && args.length > 2) {
+            maxRecordsInMemory = parsePositiveInt(args[2]);
+        }
 
         OrgAnalyzerApp app = new OrgAnalyzerApp();
         try {
-            app.analyzeAndReport(filePath);
+            if (externalMemory) {
+                app.analyzeAndReportExternally(filePath, maxRecordsInMemory);
+            } else if (cached) {
+                app.analyzeAndReportIncrementally(filePath, args[2]);
+            } else if (search) {
+                app.searchEmployees(filePath, args[2]);
+            } else if (export) {
+                app.exportColumnar(filePath, args[2], compressed);
+            } else {
+                app.analyzeAndReport(filePath);
+            }
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             System.exit(1);
         }
     }
 
+    private static void usageError(String message) {
+        System.err.println("Error: " + message);
+        System.err.println("Usage: OrgAnalyzerApp [file] [--external [maxRecords] | --cache <file>"
+                + " | --search <prefix> | --export <file> [--compress]]");
+        System.exit(1);
+    }
+
+    private static int parsePositiveInt(String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        usageError("--external expects a positive number of records, got: " + value);
+        return -1; // not reached
+    }
+
     public void analyzeAndReport(String filePath) throws Exception {
         System.out.println("Analyzing organizational structure from: " + filePath);
         System.out.println();
@@ -56,4 +117,105 @@ public class OrgAnalyzerApp {
         String report = reportGenerator.generateReport(result);
         System.out.println(report);
     }
+
+    /**
+     * Analyzes the file without loading the whole organization into memory.
+     */
+    public void analyzeAndReportExternally(String filePath, int maxRecordsInMemory) throws Exception {
+        System.out.println("Analyzing organizational structure from: " + filePath
+                + " (external memory, " + maxRecordsInMemory + " records in memory)");
+        System.out.println();
+
+        Path path = Paths.get(filePath);
+        Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
+        ExternalMemoryAnalyzer externalAnalyzer = new ExternalMemoryAnalyzer(maxRecordsInMemory, tempDir);
+
+        // Issues are spilled to disk rather than collected, so the report never holds them all
+        try (ReportGenerator.StreamingReport report = new ReportGenerator.StreamingReport(tempDir)) {
+            externalAnalyzer.analyze(path, report);
+
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()));
+            report.writeTo(out);
+            out.write(System.lineSeparator());
+            out.flush();
+        }
+    }
+
+    /**
+     * Analyzes the file, reusing results cached by previous runs for unchanged subtrees.
+     */
+    public void analyzeAndReportIncrementally(String filePath, String cacheFilePath) throws Exception {
+        System.out.println("Analyzing organizational structure from: " + filePath
+                + " (cache: " + cacheFilePath + ")");
+        System.out.println();
+
+        Map<String, Employee> employees = parser.parseFromFile(Paths.get(filePath));
+        System.out.println("Loaded " + employees.size() + " employees");
+
+        Employee ceo = hierarchyBuilder.buildHierarchy(employees);
+        SubtreeHashes hashes = hierarchyBuilder.hashSubtrees(ceo);
+        System.out.println("CEO: " + ceo);
+
+        Path cacheFile = Paths.get(cacheFilePath);
+        AnalysisCache cache = AnalysisCache.load(cacheFile);
+        IncrementalComplianceAnalyzer incrementalAnalyzer = new IncrementalComplianceAnalyzer();
+        ComplianceAnalyzer.AnalysisResult result = incrementalAnalyzer.analyze(hashes, employees, cache);
+        if (cache.isModified()) {
+            cache.save(cacheFile);
+        }
+        System.out.println("Reused cached results for " + incrementalAnalyzer.getReusedEmployees() + " employees");
+        System.out.println();
+
+        String report = reportGenerator.generateReport(result);
+        System.out.println(report);
+    }
+
+    /**
+     * Prints employees whose ID or name starts with the given prefix, with their compliance status.
+     */
+    public void searchEmployees(String filePath, String prefix) throws Exception {
+        Map<String, Employee> employees = parser.parseFromFile(Paths.get(filePath));
+        Employee ceo = hierarchyBuilder.buildHierarchy(employees);
+        ComplianceAnalyzer.AnalysisResult result = analyzer.analyze(ceo);
+        EmployeeSearchIndex index = new EmployeeSearchIndex(employees.values(), result);
+
+        List<EmployeeSearchIndex.Match> matches = index.search(prefix, 50);
+        if (matches.isEmpty()) {
+            System.out.println("No employees found matching \"" + prefix + "\"");
+            return;
+        }
+
+        for (EmployeeSearchIndex.Match match : matches) {
+            StringBuilder line = new StringBuilder(match.getEmployee().toString());
+            if (match.isCompliant()) {
+                line.append(": compliant");
+            }
+            if (match.getUnderpaidIssue() != null) {
+                line.append(String.format(": underpaid by $%.2f", match.getUnderpaidIssue().getDifference()));
+            }
+            if (match.getOverpaidIssue() != null) {
+                line.append(String.format(": overpaid by $%.2f", match.getOverpaidIssue().getDifference()));
+            }
+            if (match.getReportingLineIssue() != null) {
+                line.append(String.format(": reporting line too long by %d level(s)",
+                        match.getReportingLineIssue().getExcessLevels()));
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Streams all issues into a binary columnar file for downstream jobs instead of a text report.
+     */
+    public void exportColumnar(String filePath, String outputPath, boolean compressed) throws Exception {
+        Map<String, Employee> employees = parser.parseFromFile(Paths.get(filePath));
+        Employee ceo = hierarchyBuilder.buildHierarchy(employees);
+
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(Paths.get(outputPath), compressed)) {
+            analyzer.analyze(ceo, writer);
+            writer.commit();
+            System.out.println("Exported " + writer.getIssueCount() + " issues for " + employees.size()
+                    + " employees to " + outputPath);
+        }
+    }
 }
\ No newline at end of file
@@ -12,14 +12,30 @@ public class Employee {
     private final double salary;
     private final String managerId;
     private final List<Employee> subordinates;
+    private final boolean frozen;
 
     public Employee(String id, String firstName, String lastName, double salary, String managerId) {
+        this(id, firstName, lastName, salary, managerId, new ArrayList<>(), false);
+    }
+
+    /**
+     * Creates an employee with a fixed list of subordinates; {@link #addSubordinate} then throws.
+     * The list is copied once, without the duplicate checks of {@link #addSubordinate}.
+     */
+    public Employee(String id, String firstName, String lastName, double salary, String managerId,
+                    List<Employee> subordinates) {
+        this(id, firstName, lastName, salary, managerId, List.copyOf(subordinates), true);
+    }
+
+    private Employee(String id, String firstName, String lastName, double salary, String managerId,
+                     List<Employee> subordinates, boolean frozen) {
         this.id = Objects.requireNonNull(id, "Employee ID cannot be null");
         this.firstName = Objects.requireNonNull(firstName, "First name cannot be null");
         this.lastName = Objects.requireNonNull(lastName, "Last name cannot be null");
         this.salary = salary;
         this.managerId = managerId; // null for CEO
-        this.subordinates = new ArrayList<>();
+        this.subordinates = subordinates;
+        this.frozen = frozen;
 
         if (salary < 0) {
             throw new IllegalArgumentException("Salary cannot be negative");
@@ -51,6 +67,9 @@ public class Employee {
     }
 
     public void addSubordinate(Employee subordinate) {
+        if (frozen) {
+            throw new IllegalStateException("Subordinates of " + this + " are fixed");
+        }
         if (subordinate != null && !subordinates.contains(subordinate)) {
             subordinates.add(subordinate);
         }
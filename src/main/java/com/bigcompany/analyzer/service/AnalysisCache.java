@@ -0,0 +1,165 @@
+package com.bigcompany.analyzer.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent cache of per-subtree analysis results, keyed by subtree hash and the
+ * level of the subtree root (reporting line issues depend on how deep the subtree sits).
+ * Each entry holds only the issues that are not inside a cached child subtree, plus the keys
+ * of those child subtrees and where their issues go, so every issue is stored once no matter
+ * how deep the org is and can still be replayed in pre-order.
+ * Issues refer to employees by ID so they can be resolved against the current run's hierarchy.
+ */
+public class AnalysisCache {
+    // Bump whenever the file layout or the compliance rules change
+    private static final int FORMAT_VERSION = 3;
+
+    private final Map<Long, Entry> entries;
+    private boolean modified;
+
+    public AnalysisCache() {
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Loads a cache file. A missing file or one written by another format version yields an empty cache.
+     */
+    public static AnalysisCache load(Path file) throws IOException {
+        AnalysisCache cache = new AnalysisCache();
+        if (!Files.exists(file)) {
+            return cache;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return cache;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                long key = in.readLong();
+                int issueCount = in.readInt();
+                List<Issue> issues = new ArrayList<>(issueCount);
+                for (int j = 0; j < issueCount; j++) {
+                    issues.add(new Issue(Issue.Kind.values()[in.readByte()], in.readUTF(),
+                            in.readDouble(), in.readDouble(), in.readDouble(), in.readInt(), in.readInt()));
+                }
+                long[] childKeys = new long[in.readInt()];
+                int[] childOffsets = new int[childKeys.length];
+                for (int j = 0; j < childKeys.length; j++) {
+                    childKeys[j] = in.readLong();
+                    childOffsets[j] = in.readInt();
+                }
+                cache.entries.put(key, new Entry(Collections.unmodifiableList(issues), childKeys, childOffsets));
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Writes the cache to a temporary file first so a failed write never leaves a truncated cache behind.
+     */
+    public void save(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().issues().size());
+                for (Issue issue : entry.getValue().issues()) {
+                    out.writeByte(issue.kind().ordinal());
+                    out.writeUTF(issue.employeeId());
+                    out.writeDouble(issue.actualSalary());
+                    out.writeDouble(issue.expectedSalary());
+                    out.writeDouble(issue.difference());
+                    out.writeInt(issue.level());
+                    out.writeInt(issue.excessLevels());
+                }
+                long[] childKeys = entry.getValue().childKeys();
+                out.writeInt(childKeys.length);
+                for (int j = 0; j < childKeys.length; j++) {
+                    out.writeLong(childKeys[j]);
+                    out.writeInt(entry.getValue().childOffsets()[j]);
+                }
+            }
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        modified = false;
+    }
+
+    public static long key(long subtreeHash, int level) {
+        long z = subtreeHash + level * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the cached entry of a subtree, or null if it has not been analyzed at this level.
+     */
+    public Entry get(long key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a subtree's own issues; the issues of child subtree {@code childKeys[i]} come
+     * right after the first {@code childOffsets[i]} own issues.
+     */
+    public void put(long key, List<Issue> issues, long[] childKeys, int[] childOffsets) {
+        if (childKeys.length != childOffsets.length) {
+            throw new IllegalArgumentException("Each child key needs an offset");
+        }
+        entries.put(key, new Entry(Collections.unmodifiableList(new ArrayList<>(issues)),
+                childKeys.clone(), childOffsets.clone()));
+        modified = true;
+    }
+
+    /**
+     * Drops entries for subtrees that no longer exist, so the cache does not grow across runs.
+     */
+    public void retainKeys(Set<Long> keys) {
+        if (entries.keySet().retainAll(keys)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns true if entries were added or dropped since the cache was loaded or last saved.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Issues of a subtree that are not covered by a cached child subtree, the keys of those
+     * children and, for each child, how many of the own issues precede it in pre-order.
+     */
+    public record Entry(List<Issue> issues, long[] childKeys, int[] childOffsets) {
+    }
+
+    /**
+     * A compliance issue in ID form. Salary fields are unused for reporting line issues and vice versa.
+     */
+    public record Issue(Kind kind, String employeeId, double actualSalary, double expectedSalary,
+                        double difference, int level, int excessLevels) {
+        public enum Kind { UNDERPAID, OVERPAID, REPORTING_LINE }
+    }
+}
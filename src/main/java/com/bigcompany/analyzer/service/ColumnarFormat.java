@@ -0,0 +1,35 @@
+package com.bigcompany.analyzer.service;
+
+/**
+ * Layout constants shared by {@link ColumnarResultWriter} and {@link ColumnarResultReader}.
+ * File layout (big-endian):
+ * - Header: magic, version, flags
+ * - Row groups of up to {@code ROW_GROUP_SIZE} issues, each stored column by column:
+ *   type (byte), employee index (int), actual, expected and difference salary (double),
+ *   level and excess levels (int). With compression each column is a deflated chunk
+ *   prefixed by its compressed and raw lengths.
+ * - Footer: employee dictionary (length-prefixed ID and full name per index), then the offset of
+ *   each dictionary entry relative to the footer (long), then offset (long) and size (int) of each row group
+ * - Trailer: employee count, row group count (int), offsets of the entry offset table, row group
+ *   index and footer (long), magic
+ */
+final class ColumnarFormat {
+    static final int MAGIC = 0x4F524743; // "ORGC"
+    static final int VERSION = 2;
+    static final int FLAG_COMPRESSED = 1;
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    static final int TRAILER_BYTES = 3 * Integer.BYTES + 3 * Long.BYTES;
+    static final int ROW_GROUP_SIZE = 64 * 1024;
+
+    static final byte TYPE_UNDERPAID = 0;
+    static final byte TYPE_OVERPAID = 1;
+    static final byte TYPE_REPORTING_LINE = 2;
+
+    // Bytes per value of each column, in file order
+    static final int[] COLUMN_WIDTHS = {
+            Byte.BYTES, Integer.BYTES, Double.BYTES, Double.BYTES, Double.BYTES, Integer.BYTES, Integer.BYTES
+    };
+
+    private ColumnarFormat() {
+    }
+}
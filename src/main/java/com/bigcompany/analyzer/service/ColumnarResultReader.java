@@ -0,0 +1,190 @@
+package com.bigcompany.analyzer.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link ColumnarResultWriter}. Row groups are memory-mapped on demand
+ * and exposed as typed column buffers; uncompressed columns are views over the mapping, so a
+ * scan never copies or parses the data. Compressed columns are inflated into heap buffers.
+ * The employee dictionary stays mapped and entries are decoded only when looked up.
+ */
+public class ColumnarResultReader implements Closeable {
+    public static final byte TYPE_UNDERPAID = ColumnarFormat.TYPE_UNDERPAID;
+    public static final byte TYPE_OVERPAID = ColumnarFormat.TYPE_OVERPAID;
+    public static final byte TYPE_REPORTING_LINE = ColumnarFormat.TYPE_REPORTING_LINE;
+
+    private final FileChannel channel;
+    private final boolean compressed;
+    private final ByteBuffer dictionary;
+    private final LongBuffer entryOffsets;
+    private final long[] rowGroupOffsets; // one extra entry: the footer offset
+    private final int[] rowGroupSizes;
+    private final long issueCount;
+
+    public ColumnarResultReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < ColumnarFormat.HEADER_BYTES + ColumnarFormat.TRAILER_BYTES) {
+                throw new IllegalArgumentException("Not a columnar result file: " + file);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ColumnarFormat.HEADER_BYTES);
+            if (header.getInt() != ColumnarFormat.MAGIC || header.getInt() != ColumnarFormat.VERSION) {
+                throw new IllegalArgumentException("Not a columnar result file or unsupported version: " + file);
+            }
+            this.compressed = (header.getInt() & ColumnarFormat.FLAG_COMPRESSED) != 0;
+
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    fileSize - ColumnarFormat.TRAILER_BYTES, ColumnarFormat.TRAILER_BYTES);
+            int employeeCount = trailer.getInt();
+            int rowGroupCount = trailer.getInt();
+            long entryOffsetsOffset = trailer.getLong();
+            long rowGroupIndexOffset = trailer.getLong();
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != ColumnarFormat.MAGIC) {
+                throw new IllegalArgumentException("Columnar result file is truncated: " + file);
+            }
+
+            this.dictionary = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, entryOffsetsOffset - footerOffset);
+            this.entryOffsets = channel.map(FileChannel.MapMode.READ_ONLY, entryOffsetsOffset,
+                    (long) employeeCount * Long.BYTES).asLongBuffer();
+
+            ByteBuffer rowGroupIndex = channel.map(FileChannel.MapMode.READ_ONLY, rowGroupIndexOffset,
+                    (long) rowGroupCount * (Long.BYTES + Integer.BYTES));
+            this.rowGroupOffsets = new long[rowGroupCount + 1];
+            this.rowGroupSizes = new int[rowGroupCount];
+            long total = 0;
+            for (int i = 0; i < rowGroupCount; i++) {
+                rowGroupOffsets[i] = rowGroupIndex.getLong();
+                rowGroupSizes[i] = rowGroupIndex.getInt();
+                total += rowGroupSizes[i];
+            }
+            rowGroupOffsets[rowGroupCount] = footerOffset;
+            this.issueCount = total;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getIssueCount() {
+        return issueCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroupSizes.length;
+    }
+
+    public int getEmployeeCount() {
+        return entryOffsets.capacity();
+    }
+
+    public String getEmployeeId(int employeeIndex) {
+        return readString(dictionary, (int) entryOffsets.get(employeeIndex));
+    }
+
+    public String getEmployeeName(int employeeIndex) {
+        int idOffset = (int) entryOffsets.get(employeeIndex);
+        return readString(dictionary, idOffset + Integer.BYTES + dictionary.getInt(idOffset));
+    }
+
+    public RowGroup getRowGroup(int index) throws IOException {
+        long offset = rowGroupOffsets[index];
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, rowGroupOffsets[index + 1] - offset);
+        int rows = rowGroupSizes[index];
+
+        ByteBuffer[] columns = new ByteBuffer[ColumnarFormat.COLUMN_WIDTHS.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (compressed) {
+                columns[i] = inflate(data);
+            } else {
+                int length = rows * ColumnarFormat.COLUMN_WIDTHS[i];
+                columns[i] = data.slice(data.position(), length);
+                data.position(data.position() + length);
+            }
+        }
+        return new RowGroup(rows, columns);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer inflate(ByteBuffer data) throws IOException {
+        int compressedLength = data.getInt();
+        int rawLength = data.getInt();
+        ByteBuffer input = data.slice(data.position(), compressedLength);
+        data.position(data.position() + compressedLength);
+
+        ByteBuffer output = ByteBuffer.allocate(rawLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            while (output.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(output) == 0 && inflater.needsInput()) {
+                    throw new IOException("Compressed column is truncated");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed column is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return output.flip();
+    }
+
+    // Absolute reads only, so concurrent lookups never share a buffer position
+    private static String readString(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Typed column views over one row group. Salary columns are 0 for reporting line issues,
+     * level columns are 0 for salary issues.
+     */
+    public static class RowGroup {
+        private final int size;
+        private final ByteBuffer types;
+        private final IntBuffer employeeIndexes;
+        private final DoubleBuffer actualSalaries;
+        private final DoubleBuffer expectedSalaries;
+        private final DoubleBuffer differences;
+        private final IntBuffer levels;
+        private final IntBuffer excessLevels;
+
+        private RowGroup(int size, ByteBuffer[] columns) {
+            this.size = size;
+            this.types = columns[0];
+            this.employeeIndexes = columns[1].asIntBuffer();
+            this.actualSalaries = columns[2].asDoubleBuffer();
+            this.expectedSalaries = columns[3].asDoubleBuffer();
+            this.differences = columns[4].asDoubleBuffer();
+            this.levels = columns[5].asIntBuffer();
+            this.excessLevels = columns[6].asIntBuffer();
+        }
+
+        public int size() { return size; }
+        public byte getType(int row) { return types.get(row); }
+        public int getEmployeeIndex(int row) { return employeeIndexes.get(row); }
+        public double getActualSalary(int row) { return actualSalaries.get(row); }
+        public double getExpectedSalary(int row) { return expectedSalaries.get(row); }
+        public double getDifference(int row) { return differences.get(row); }
+        public int getLevel(int row) { return levels.get(row); }
+        public int getExcessLevels(int row) { return excessLevels.get(row); }
+    }
+}
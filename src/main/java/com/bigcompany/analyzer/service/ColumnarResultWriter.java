@@ -0,0 +1,255 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes compliance issues as a binary columnar file that {@link ColumnarResultReader} can
+ * memory-map and scan without text parsing. Issues are buffered per column and flushed in
+ * row groups. Employees are dictionary-encoded: each issue stores an index into the ID/name
+ * dictionary in the footer. Dictionary entries are spilled to side files as employees are first
+ * seen and copied into the footer on commit, so memory holds one row group, one index entry
+ * per row group and an ID-to-index map of the distinct employees that have issues.
+ * See {@link ColumnarFormat} for the file layout.
+ * <p>
+ * Rows go to a temporary file next to the target. {@link #commit()} writes the footer and
+ * moves the file into place; closing without a commit deletes it, so a failed export never
+ * leaves a file that looks complete.
+ */
+public class ColumnarResultWriter implements IssueSink, Closeable {
+    private final Path file;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final boolean compressed;
+    private final ByteBuffer[] columns;
+    private final Map<String, Integer> employeeIndexes = new HashMap<>();
+    private final Path dictionaryFile;
+    private final Path entryOffsetsFile;
+    private final DataOutputStream dictionary;
+    private final DataOutputStream entryOffsets;
+    private long dictionaryBytes;
+    private final List<long[]> rowGroups = new ArrayList<>(); // {offset, rowCount}
+    private int bufferedRows;
+    private long issueCount;
+    private boolean closed;
+
+    public ColumnarResultWriter(Path file, boolean compressed) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.tempFile = Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+        this.dictionaryFile = Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(), ".dict");
+        this.entryOffsetsFile = Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(), ".offsets");
+        this.dictionary = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dictionaryFile)));
+        this.entryOffsets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(entryOffsetsFile)));
+        this.compressed = compressed;
+        this.columns = new ByteBuffer[ColumnarFormat.COLUMN_WIDTHS.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ByteBuffer.allocate(ColumnarFormat.ROW_GROUP_SIZE * ColumnarFormat.COLUMN_WIDTHS[i]);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(ColumnarFormat.HEADER_BYTES);
+        header.putInt(ColumnarFormat.MAGIC)
+                .putInt(ColumnarFormat.VERSION)
+                .putInt(compressed ? ColumnarFormat.FLAG_COMPRESSED : 0)
+                .flip();
+        try {
+            writeFully(header);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void addUnderpaidManager(SalaryIssue issue) throws IOException {
+        writeRow(ColumnarFormat.TYPE_UNDERPAID, issue.getEmployee(), issue.getActualSalary(),
+                issue.getExpectedSalary(), issue.getDifference(), 0, 0);
+    }
+
+    @Override
+    public void addOverpaidManager(SalaryIssue issue) throws IOException {
+        writeRow(ColumnarFormat.TYPE_OVERPAID, issue.getEmployee(), issue.getActualSalary(),
+                issue.getExpectedSalary(), issue.getDifference(), 0, 0);
+    }
+
+    @Override
+    public void addReportingLineIssue(ReportingLineIssue issue) throws IOException {
+        writeRow(ColumnarFormat.TYPE_REPORTING_LINE, issue.getEmployee(), 0, 0, 0,
+                issue.getActualLevel(), issue.getExcessLevels());
+    }
+
+    public long getIssueCount() {
+        return issueCount;
+    }
+
+    private void writeRow(byte type, Employee employee, double actual, double expected, double difference,
+                          int level, int excessLevels) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is already committed or closed");
+        }
+
+        Integer employeeIndex = employeeIndexes.get(employee.getId());
+        if (employeeIndex == null) {
+            employeeIndex = employeeIndexes.size();
+            employeeIndexes.put(employee.getId(), employeeIndex);
+            entryOffsets.writeLong(dictionaryBytes);
+            dictionaryBytes += writeString(dictionary, employee.getId());
+            dictionaryBytes += writeString(dictionary, employee.getFullName());
+        }
+
+        columns[0].put(type);
+        columns[1].putInt(employeeIndex);
+        columns[2].putDouble(actual);
+        columns[3].putDouble(expected);
+        columns[4].putDouble(difference);
+        columns[5].putInt(level);
+        columns[6].putInt(excessLevels);
+        bufferedRows++;
+        issueCount++;
+
+        if (bufferedRows == ColumnarFormat.ROW_GROUP_SIZE) {
+            flushRowGroup();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        rowGroups.add(new long[]{channel.position(), bufferedRows});
+        for (ByteBuffer column : columns) {
+            column.flip();
+            if (compressed) {
+                writeCompressed(column);
+            } else {
+                writeFully(column);
+            }
+            column.clear();
+        }
+        bufferedRows = 0;
+    }
+
+    private void writeCompressed(ByteBuffer column) throws IOException {
+        int rawLength = column.remaining();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(column);
+            deflater.finish();
+            byte[] out = new byte[rawLength + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+
+            ByteBuffer chunk = ByteBuffer.allocate(2 * Integer.BYTES + length);
+            chunk.putInt(length).putInt(rawLength).put(out, 0, length).flip();
+            writeFully(chunk);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Writes the footer and trailer and moves the finished file to its target path.
+     */
+    public void commit() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is already committed or closed");
+        }
+
+        try {
+            if (bufferedRows > 0) {
+                flushRowGroup();
+            }
+            dictionary.close();
+            entryOffsets.close();
+
+            // Streamed through a small buffer; closing the stream would close the channel
+            long footerOffset = channel.position();
+            DataOutputStream footer = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            Files.copy(dictionaryFile, footer);
+            Files.copy(entryOffsetsFile, footer);
+            for (long[] rowGroup : rowGroups) {
+                footer.writeLong(rowGroup[0]);
+                footer.writeInt((int) rowGroup[1]);
+            }
+            long entryOffsetsOffset = footerOffset + dictionaryBytes;
+            footer.writeInt(employeeIndexes.size());
+            footer.writeInt(rowGroups.size());
+            footer.writeLong(entryOffsetsOffset);
+            footer.writeLong(entryOffsetsOffset + (long) employeeIndexes.size() * Long.BYTES);
+            footer.writeLong(footerOffset);
+            footer.writeInt(ColumnarFormat.MAGIC);
+            footer.flush();
+
+            channel.force(false);
+            channel.close();
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            closed = true;
+        } finally {
+            close();
+            deleteSpillFiles();
+        }
+    }
+
+    /**
+     * Discards the export unless it was committed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            dictionary.close();
+            entryOffsets.close();
+            channel.close();
+        } finally {
+            Files.deleteIfExists(tempFile);
+            deleteSpillFiles();
+        }
+    }
+
+    private void deleteSpillFiles() throws IOException {
+        Files.deleteIfExists(dictionaryFile);
+        Files.deleteIfExists(entryOffsetsFile);
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string and returns the number of bytes written.
+     */
+    private static int writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return Integer.BYTES + bytes.length;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
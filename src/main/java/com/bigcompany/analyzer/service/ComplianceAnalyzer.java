@@ -2,6 +2,8 @@ package com.bigcompany.analyzer.service;
 
 import com.bigcompany.analyzer.model.Employee;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -27,13 +29,23 @@ public class ComplianceAnalyzer {
         return collector.buildResult();
     }
 
-    private void analyzeEmployee(Employee employee, int level, ResultCollector collector) {
-        // Check reporting line length (CEO is at level 0)
-        if (level > MAX_REPORTING_LEVELS) {
-            int excessLevels = level - MAX_REPORTING_LEVELS;
-            collector.addReportingLineIssue(new ReportingLineIssue(
-                    employee, level, excessLevels));
+    /**
+     * Streams issues to the sink as they are found instead of collecting them in memory.
+     */
+    public void analyze(Employee ceo, IssueSink sink) throws IOException {
+        if (ceo == null) {
+            throw new IllegalArgumentException("CEO cannot be null");
+        }
+
+        try {
+            analyzeEmployee(ceo, 0, new SinkCollector(sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+    }
+
+    private void analyzeEmployee(Employee employee, int level, ResultCollector collector) {
+        checkReportingLine(employee, level, collector);
 
         // Check salary compliance for managers only
         if (employee.isManager()) {
@@ -46,13 +58,31 @@ public class ComplianceAnalyzer {
         }
     }
 
-    private void analyzeSalaryCompliance(Employee manager, ResultCollector collector) {
+    static void analyzeSalaryCompliance(Employee manager, ResultCollector collector) {
         List<Employee> subordinates = manager.getSubordinates();
         double avgSubordinateSalary = subordinates.stream()
                 .mapToDouble(Employee::getSalary)
                 .average()
                 .orElse(0.0);
 
+        checkSalaryBand(manager, avgSubordinateSalary, collector);
+    }
+
+    /**
+     * Checks the reporting line length of an employee (CEO is at level 0).
+     */
+    static void checkReportingLine(Employee employee, int level, ResultCollector collector) {
+        if (level > MAX_REPORTING_LEVELS) {
+            int excessLevels = level - MAX_REPORTING_LEVELS;
+            collector.addReportingLineIssue(new ReportingLineIssue(
+                    employee, level, excessLevels));
+        }
+    }
+
+    /**
+     * Checks a manager's salary against the band derived from the average salary of direct subordinates.
+     */
+    static void checkSalaryBand(Employee manager, double avgSubordinateSalary, ResultCollector collector) {
         double minAllowedSalary = avgSubordinateSalary * MIN_SALARY_MULTIPLIER;
         double maxAllowedSalary = avgSubordinateSalary * MAX_SALARY_MULTIPLIER;
         double managerSalary = manager.getSalary();
@@ -126,7 +156,7 @@ public class ComplianceAnalyzer {
         public int getExcessLevels() { return excessLevels; }
     }
 
-    private static class ResultCollector {
+    static class ResultCollector implements IssueSink {
         private final List<SalaryIssue> underpaidManagers = new ArrayList<>();
         private final List<SalaryIssue> overpaidManagers = new ArrayList<>();
         private final List<ReportingLineIssue> reportingLineIssues = new ArrayList<>();
@@ -139,5 +169,42 @@ public class ComplianceAnalyzer {
             return new AnalysisResult(underpaidManagers, overpaidManagers, reportingLineIssues);
         }
     }
-}
 
+    /**
+     * Forwards issues to a sink, rethrowing its I/O failures unchecked so the recursive walk stays simple.
+     */
+    static class SinkCollector extends ResultCollector {
+        private final IssueSink sink;
+
+        SinkCollector(IssueSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void addUnderpaidManager(SalaryIssue issue) {
+            try {
+                sink.addUnderpaidManager(issue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void addOverpaidManager(SalaryIssue issue) {
+            try {
+                sink.addOverpaidManager(issue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void addReportingLineIssue(ReportingLineIssue issue) {
+            try {
+                sink.addReportingLineIssue(issue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -60,14 +60,14 @@ public class EmployeeParser {
         return employees;
     }
 
-    private void validateHeader(String headerLine) {
+    void validateHeader(String headerLine) {
         String expectedHeader = "Id,firstName,lastName,salary,managerId";
         if (!expectedHeader.equals(headerLine.trim())) {
             throw new IllegalArgumentException("Invalid CSV header. Expected: " + expectedHeader);
         }
     }
 
-    private Employee parseLine(String line) {
+    Employee parseLine(String line) {
         String[] fields = line.split(DELIMITER, -1); // -1 to keep empty trailing fields
 
         if (fields.length != EXPECTED_COLUMNS) {
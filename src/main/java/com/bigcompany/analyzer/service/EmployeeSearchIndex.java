@@ -0,0 +1,242 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive prefix search over employee IDs, first names and last names.
+ * Keys are lower-cased, de-duplicated and kept in one sorted array; each key points to a
+ * range of employee ordinals, so a lookup is a binary search followed by a scan of the matches.
+ * Compliance issues are kept in arrays indexed by employee ordinal, one salary issue and one
+ * reporting line issue slot per employee.
+ */
+public class EmployeeSearchIndex {
+    private final Employee[] employees;
+    private final String[] keys;
+    private final int[] keyStarts; // keys[i] owns ordinals[keyStarts[i] .. keyStarts[i + 1])
+    private final int[] ordinals;
+    private final SalaryIssue[] salaryIssues; // underpaid or overpaid, never both
+    private final ReportingLineIssue[] reportingLineIssues;
+
+    /**
+     * Builds the index. Besides the index itself, building temporarily needs two arrays of
+     * 3 × n key references and one of 3 × n ints (about 36 bytes per employee with compressed
+     * references); all sorting is done on these arrays, without boxing.
+     */
+    public EmployeeSearchIndex(Collection<Employee> employees, AnalysisResult result) {
+        this.employees = employees.toArray(new Employee[0]);
+
+        // Entry e is field e % 3 of employee e / 3
+        int entryCount = this.employees.length * 3;
+        String[] entryKeys = new String[entryCount];
+        for (int i = 0; i < this.employees.length; i++) {
+            Employee employee = this.employees[i];
+            entryKeys[i * 3] = normalize(employee.getId());
+            entryKeys[i * 3 + 1] = normalize(employee.getFirstName());
+            entryKeys[i * 3 + 2] = normalize(employee.getLastName());
+        }
+
+        String[] sortedKeys = entryKeys.clone();
+        Arrays.sort(sortedKeys);
+        int distinctCount = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (distinctCount == 0 || !sortedKeys[distinctCount - 1].equals(sortedKeys[i])) {
+                sortedKeys[distinctCount++] = sortedKeys[i];
+            }
+        }
+        this.keys = Arrays.copyOf(sortedKeys, distinctCount);
+
+        // Counting sort of entries by key index; entries of one key stay in ordinal order
+        int[] entryKeyIndexes = new int[entryCount];
+        this.keyStarts = new int[keys.length + 1];
+        for (int e = 0; e < entryCount; e++) {
+            entryKeyIndexes[e] = Arrays.binarySearch(keys, entryKeys[e]);
+            keyStarts[entryKeyIndexes[e] + 1]++;
+        }
+        for (int k = 0; k < keys.length; k++) {
+            keyStarts[k + 1] += keyStarts[k];
+        }
+        int[] next = Arrays.copyOf(keyStarts, keys.length);
+        this.ordinals = new int[entryCount];
+        for (int e = 0; e < entryCount; e++) {
+            ordinals[next[entryKeyIndexes[e]]++] = e / 3;
+        }
+
+        this.salaryIssues = new SalaryIssue[this.employees.length];
+        this.reportingLineIssues = new ReportingLineIssue[this.employees.length];
+        for (SalaryIssue issue : result.getUnderpaidManagers()) {
+            salaryIssues[ordinalOf(issue.getEmployee())] = issue;
+        }
+        for (SalaryIssue issue : result.getOverpaidManagers()) {
+            salaryIssues[ordinalOf(issue.getEmployee())] = issue;
+        }
+        for (ReportingLineIssue issue : result.getReportingLineIssues()) {
+            reportingLineIssues[ordinalOf(issue.getEmployee())] = issue;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} employees whose ID, first name or last name starts with the
+     * given prefix (ignoring case), ordered by the matching key.
+     */
+    public List<Match> search(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Search prefix cannot be empty");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        String normalized = normalize(prefix.trim());
+        List<Match> matches = new ArrayList<>();
+        OrdinalSet seen = new OrdinalSet();
+        for (int k = lowerBound(normalized); k < keys.length && keys[k].startsWith(normalized); k++) {
+            for (int i = keyStarts[k]; i < keyStarts[k + 1]; i++) {
+                int ordinal = ordinals[i];
+                if (seen.add(ordinal)) {
+                    SalaryIssue salaryIssue = salaryIssues[ordinal];
+                    boolean underpaid = salaryIssue != null
+                            && salaryIssue.getActualSalary() < salaryIssue.getExpectedSalary();
+                    matches.add(new Match(employees[ordinal], underpaid ? salaryIssue : null,
+                            underpaid ? null : salaryIssue, reportingLineIssues[ordinal]));
+                    if (matches.size() == limit) {
+                        return matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return employees.length;
+    }
+
+    /**
+     * Estimates the heap used by the index itself (arrays and key strings), excluding the
+     * employees and issues it refers to. Assumes compressed references and compact Latin-1 strings;
+     * keys that are already lower case share the employee's string, so this is an upper bound.
+     * Per employee that is at most 48 bytes of array slots plus three keys, each 40 bytes plus its
+     * length rounded up to 8, and a fixed 150 bytes or so of array headers.
+     */
+    public long estimateMemoryBytes() {
+        long bytes = arrayBytes(employees.length, 4) + arrayBytes(keys.length, 4)
+                + arrayBytes(keyStarts.length, 4) + arrayBytes(ordinals.length, 4)
+                + arrayBytes(salaryIssues.length, 4) + arrayBytes(reportingLineIssues.length, 4);
+        for (String key : keys) {
+            bytes += 24 + arrayBytes(key.length(), 1); // String header + byte[] value
+        }
+        return bytes;
+    }
+
+    // Names and IDs that differ only in case share the key, so compare the exact ID
+    private int ordinalOf(Employee employee) {
+        int k = Arrays.binarySearch(keys, normalize(employee.getId()));
+        if (k >= 0) {
+            for (int i = keyStarts[k]; i < keyStarts[k + 1]; i++) {
+                if (employees[ordinals[i]].getId().equals(employee.getId())) {
+                    return ordinals[i];
+                }
+            }
+        }
+        throw new IllegalArgumentException("Issue refers to an unknown employee: " + employee.getId());
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    /**
+     * Open-addressing set of employee ordinals, so de-duplicating matches does not box them.
+     */
+    private static class OrdinalSet {
+        private int[] slots = new int[16]; // ordinal + 1, 0 marks an empty slot
+        private int size;
+
+        boolean add(int ordinal) {
+            if ((size + 1) * 2 > slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int slot = mix(ordinal) & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == ordinal + 1) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = ordinal + 1;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            size = 0;
+            for (int value : old) {
+                if (value != 0) {
+                    add(value - 1);
+                }
+            }
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * A matching employee with its compliance status. At most one of the salary issues is set.
+     */
+    public static class Match {
+        private final Employee employee;
+        private final SalaryIssue underpaidIssue;
+        private final SalaryIssue overpaidIssue;
+        private final ReportingLineIssue reportingLineIssue;
+
+        public Match(Employee employee, SalaryIssue underpaidIssue, SalaryIssue overpaidIssue,
+                     ReportingLineIssue reportingLineIssue) {
+            this.employee = employee;
+            this.underpaidIssue = underpaidIssue;
+            this.overpaidIssue = overpaidIssue;
+            this.reportingLineIssue = reportingLineIssue;
+        }
+
+        public Employee getEmployee() { return employee; }
+        public SalaryIssue getUnderpaidIssue() { return underpaidIssue; }
+        public SalaryIssue getOverpaidIssue() { return overpaidIssue; }
+        public ReportingLineIssue getReportingLineIssue() { return reportingLineIssue; }
+
+        public boolean isCompliant() {
+            return underpaidIssue == null && overpaidIssue == null && reportingLineIssue == null;
+        }
+    }
+}
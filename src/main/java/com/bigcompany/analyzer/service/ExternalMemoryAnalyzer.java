@@ -0,0 +1,227 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ResultCollector;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SinkCollector;
+import com.bigcompany.analyzer.service.ExternalSorter.Row;
+import com.bigcompany.analyzer.service.ExternalSorter.RowReader;
+import com.bigcompany.analyzer.service.ExternalSorter.Sorting;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.stream.Stream;
+
+/**
+ * Analyzes organizations that are too large to hold in memory as an {@link com.bigcompany.analyzer.model.Employee} graph.
+ * Rows are externally sorted by ID and by managerId into temporary files; salary bands are checked
+ * with a merge-join of the two orders, and reporting levels are found with one join pass per level.
+ * The sorter holds at most {@code maxRecordsInMemory} rows in memory at a time; this is a row
+ * count, not a byte budget. Issues are streamed to an {@link IssueSink} as they are found, so
+ * memory use does not grow with the number of issues unless the sink keeps them.
+ * Produces the same issues as {@link ComplianceAnalyzer}, but ordered by manager ID for salary
+ * issues and level by level (then by ID) for reporting line issues.
+ */
+public class ExternalMemoryAnalyzer {
+    private static final int DEFAULT_MAX_RECORDS_IN_MEMORY = 100_000;
+
+    private final EmployeeParser parser;
+    private final int maxRecordsInMemory;
+    private final Path tempDir;
+
+    public ExternalMemoryAnalyzer() {
+        this(DEFAULT_MAX_RECORDS_IN_MEMORY, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalMemoryAnalyzer(int maxRecordsInMemory, Path tempDir) {
+        if (maxRecordsInMemory < 1) {
+            throw new IllegalArgumentException("maxRecordsInMemory must be positive");
+        }
+        this.parser = new EmployeeParser();
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Collects all issues in memory; use {@link #analyze(Path, IssueSink)} when there may be many.
+     */
+    public AnalysisResult analyze(Path filePath) throws IOException {
+        ResultCollector collector = new ResultCollector();
+        analyze(filePath, collector);
+        return collector.buildResult();
+    }
+
+    public void analyze(Path filePath, IssueSink sink) throws IOException {
+        Path workDir = Files.createTempDirectory(tempDir, "org-analyzer-");
+        try {
+            ExternalSorter sorter = new ExternalSorter(maxRecordsInMemory, workDir);
+
+            Sorting byIdSorting = sorter.sorting(ExternalSorter.BY_ID);
+            Row ceo = parseSorted(filePath, byIdSorting);
+            long employeeCount = byIdSorting.size();
+            Path byId = byIdSorting.finish();
+            Path byManagerId = sortByManagerId(byId, sorter);
+
+            ResultCollector collector = new SinkCollector(sink);
+            analyzeSalaries(byManagerId, byId, collector);
+            analyzeReportingLines(ceo, employeeCount, byManagerId, sorter, collector);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private Row parseSorted(Path filePath, Sorting sorting) throws IOException {
+        Row ceo = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("File is empty");
+            }
+
+            parser.validateHeader(headerLine);
+
+            String line;
+            int lineNumber = 2; // Start from line 2 (after header)
+
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue; // Skip empty lines
+                }
+
+                Row row;
+                try {
+                    row = Row.of(parser.parseLine(line));
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Error parsing line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                if (row.managerId() == null) {
+                    if (ceo != null) {
+                        throw new IllegalStateException("Multiple CEOs found: " + ceo.toEmployee() + " and " + row.toEmployee());
+                    }
+                    ceo = row;
+                }
+                sorting.add(row);
+                lineNumber++;
+            }
+        }
+
+        if (sorting.size() == 0) {
+            throw new IllegalArgumentException("No valid employee records found");
+        }
+        if (ceo == null) {
+            throw new IllegalStateException("No CEO found in organization");
+        }
+
+        return ceo;
+    }
+
+    private Path sortByManagerId(Path byId, ExternalSorter sorter) throws IOException {
+        Sorting sorting = sorter.sorting(ExternalSorter.BY_MANAGER_ID);
+        try (RowReader rows = ExternalSorter.open(byId)) {
+            Row previous = null;
+            Row row;
+            while ((row = rows.next()) != null) {
+                if (previous != null && previous.id().equals(row.id())) {
+                    throw new IllegalArgumentException("Duplicate employee ID: " + row.id());
+                }
+                sorting.add(row);
+                previous = row;
+            }
+        }
+        return sorting.finish();
+    }
+
+    /**
+     * Merge-joins subordinates grouped by managerId with employees sorted by ID.
+     */
+    private void analyzeSalaries(Path byManagerId, Path byId, ResultCollector collector) throws IOException {
+        try (RowReader reports = ExternalSorter.open(byManagerId);
+             RowReader employees = ExternalSorter.open(byId)) {
+            Row report = reports.next();
+            while (report != null && report.managerId() == null) {
+                report = reports.next(); // CEO sorts first
+            }
+            Row employee = employees.next();
+
+            while (report != null) {
+                String managerId = report.managerId();
+                DoubleSummaryStatistics subordinateSalaries = new DoubleSummaryStatistics();
+                while (report != null && managerId.equals(report.managerId())) {
+                    subordinateSalaries.accept(report.salary());
+                    report = reports.next();
+                }
+
+                while (employee != null && employee.id().compareTo(managerId) < 0) {
+                    employee = employees.next();
+                }
+                if (employee == null || !employee.id().equals(managerId)) {
+                    throw new IllegalArgumentException("Manager not found. Manager ID: " + managerId);
+                }
+
+                ComplianceAnalyzer.checkSalaryBand(employee.toEmployee(), subordinateSalaries.getAverage(), collector);
+            }
+        }
+    }
+
+    /**
+     * Walks the hierarchy one level at a time: the employees at level n+1 are the rows whose
+     * managerId joins with the (ID-sorted) employees at level n. Reporting lines are checked
+     * while reading each ID-sorted level, after that level has been fully collected.
+     */
+    private void analyzeReportingLines(Row ceo, long employeeCount, Path byManagerId,
+                                       ExternalSorter sorter, ResultCollector collector) throws IOException {
+        Sorting ceoLevel = sorter.sorting(ExternalSorter.BY_ID);
+        ceoLevel.add(ceo);
+        Path level = ceoLevel.finish();
+        long reached = 1;
+        int depth = 0;
+
+        while (true) {
+            depth++;
+            Sorting nextLevel = sorter.sorting(ExternalSorter.BY_ID);
+            try (RowReader reports = ExternalSorter.open(byManagerId);
+                 RowReader managers = ExternalSorter.open(level)) {
+                Row report = reports.next();
+                for (Row manager = managers.next(); manager != null; manager = managers.next()) {
+                    // Level files are sorted by ID, so each level's issues come out in ID order
+                    ComplianceAnalyzer.checkReportingLine(manager.toEmployee(), depth - 1, collector);
+                    while (report != null
+                            && (report.managerId() == null || report.managerId().compareTo(manager.id()) < 0)) {
+                        report = reports.next(); // CEO sorts first
+                    }
+                    while (report != null && report.managerId().equals(manager.id())) {
+                        nextLevel.add(report);
+                        report = reports.next();
+                    }
+                }
+            }
+            Files.delete(level);
+
+            if (nextLevel.size() == 0) {
+                break;
+            }
+            reached += nextLevel.size();
+            level = nextLevel.finish();
+        }
+
+        if (reached != employeeCount) {
+            throw new IllegalStateException((employeeCount - reached)
+                    + " employee(s) are not reachable from the CEO (cyclic reporting lines)");
+        }
+    }
+
+    private void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts employee rows that do not fit in memory.
+ * Rows are buffered up to a fixed budget, sorted and spilled to temporary run files,
+ * which are then merged k-way into a single sorted file.
+ */
+final class ExternalSorter {
+    private static final int MAX_MERGE_FAN_IN = 64;
+
+    static final Comparator<Row> BY_ID = Comparator.comparing(Row::id);
+    static final Comparator<Row> BY_MANAGER_ID = Comparator
+            .comparing(Row::managerId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Row::id);
+
+    private final int maxRowsInMemory;
+    private final Path workDir;
+
+    ExternalSorter(int maxRowsInMemory, Path workDir) {
+        if (maxRowsInMemory < 1) {
+            throw new IllegalArgumentException("Memory budget must allow at least one row");
+        }
+        this.maxRowsInMemory = maxRowsInMemory;
+        this.workDir = workDir;
+    }
+
+    Sorting sorting(Comparator<Row> order) {
+        return new Sorting(order);
+    }
+
+    static RowReader open(Path file) throws IOException {
+        return new RowReader(file);
+    }
+
+    /**
+     * Flat employee record as stored in run files. managerId is null for the CEO.
+     */
+    record Row(String id, String firstName, String lastName, double salary, String managerId) {
+        static Row of(Employee employee) {
+            return new Row(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    employee.getSalary(), employee.getManagerId());
+        }
+
+        Employee toEmployee() {
+            return new Employee(id, firstName, lastName, salary, managerId);
+        }
+    }
+
+    /**
+     * Accumulates rows and produces a single file sorted by the given order.
+     */
+    final class Sorting {
+        private final Comparator<Row> order;
+        private final List<Row> buffer = new ArrayList<>();
+        private final List<Path> runs = new ArrayList<>();
+        private long size;
+
+        private Sorting(Comparator<Row> order) {
+            this.order = order;
+        }
+
+        void add(Row row) throws IOException {
+            buffer.add(row);
+            size++;
+            if (buffer.size() >= maxRowsInMemory) {
+                spill();
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        Path finish() throws IOException {
+            if (!buffer.isEmpty() || runs.isEmpty()) {
+                spill();
+            }
+            while (runs.size() > 1) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_MERGE_FAN_IN) {
+                    merged.add(merge(runs.subList(i, Math.min(i + MAX_MERGE_FAN_IN, runs.size())), order));
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+            return runs.getFirst();
+        }
+
+        private void spill() throws IOException {
+            buffer.sort(order);
+            Path run = newFile();
+            try (RowWriter writer = new RowWriter(run)) {
+                for (Row row : buffer) {
+                    writer.write(row);
+                }
+            }
+            buffer.clear();
+            runs.add(run);
+        }
+    }
+
+    private Path merge(List<Path> inputs, Comparator<Row> order) throws IOException {
+        if (inputs.size() == 1) {
+            return inputs.getFirst();
+        }
+
+        Path output = newFile();
+        List<RowReader> readers = new ArrayList<>();
+        PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> order.compare(a.row, b.row));
+        try (RowWriter writer = new RowWriter(output)) {
+            for (Path input : inputs) {
+                RowReader reader = open(input);
+                readers.add(reader);
+                Row first = reader.next();
+                if (first != null) {
+                    heads.add(new Head(first, reader));
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                writer.write(head.row);
+                Row next = head.reader.next();
+                if (next != null) {
+                    heads.add(new Head(next, head.reader));
+                }
+            }
+        } finally {
+            for (RowReader reader : readers) {
+                reader.close();
+            }
+        }
+
+        for (Path input : inputs) {
+            Files.delete(input);
+        }
+        return output;
+    }
+
+    private Path newFile() throws IOException {
+        return Files.createTempFile(workDir, "rows-", ".bin");
+    }
+
+    private record Head(Row row, RowReader reader) {
+    }
+
+    static final class RowWriter implements Closeable {
+        private final DataOutputStream out;
+
+        RowWriter(Path file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        void write(Row row) throws IOException {
+            out.writeBoolean(true);
+            out.writeUTF(row.id());
+            out.writeUTF(row.firstName());
+            out.writeUTF(row.lastName());
+            out.writeDouble(row.salary());
+            out.writeBoolean(row.managerId() != null);
+            if (row.managerId() != null) {
+                out.writeUTF(row.managerId());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeBoolean(false); // end-of-file marker
+            out.close();
+        }
+    }
+
+    static final class RowReader implements Closeable {
+        private final DataInputStream in;
+        private boolean exhausted;
+
+        private RowReader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        }
+
+        /**
+         * Returns the next row, or null once the end of the file is reached.
+         */
+        Row next() throws IOException {
+            if (exhausted || !in.readBoolean()) {
+                exhausted = true;
+                return null;
+            }
+            String id = in.readUTF();
+            String firstName = in.readUTF();
+            String lastName = in.readUTF();
+            double salary = in.readDouble();
+            String managerId = in.readBoolean() ? in.readUTF() : null;
+            return new Row(id, firstName, lastName, salary, managerId);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
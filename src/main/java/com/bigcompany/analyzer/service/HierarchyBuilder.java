@@ -2,14 +2,38 @@ package com.bigcompany.analyzer.service;
 
 import com.bigcompany.analyzer.model.Employee;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Builds organizational hierarchy from employee data.
  */
 public class HierarchyBuilder {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
 
     public Employee buildHierarchy(Map<String, Employee> employees) {
+        return link(employees, Employee::addSubordinate);
+    }
+
+    /**
+     * Builds the hierarchy from frozen copies of the employees (see
+     * {@link Employee#Employee(String, String, String, double, String, List)}), leaving the given
+     * instances untouched. Each subordinate list is built in one pass, so this stays linear for
+     * wide organizations.
+     */
+    Employee buildFrozenHierarchy(Map<String, Employee> employees) {
+        Map<String, List<Employee>> subordinates = new HashMap<>();
+        Employee ceo = link(employees, (manager, employee) ->
+                subordinates.computeIfAbsent(manager.getId(), id -> new ArrayList<>()).add(employee));
+        return freeze(ceo, subordinates);
+    }
+
+    private static Employee link(Map<String, Employee> employees, BiConsumer<Employee, Employee> addSubordinate) {
         if (employees.isEmpty()) {
             throw new IllegalArgumentException("Cannot build hierarchy from empty employee map");
         }
@@ -29,7 +53,7 @@ public class HierarchyBuilder {
                     throw new IllegalArgumentException("Manager not found for employee " + employee +
                             ". Manager ID: " + employee.getManagerId());
                 }
-                manager.addSubordinate(employee);
+                addSubordinate.accept(manager, employee);
             }
         }
 
@@ -39,4 +63,88 @@ public class HierarchyBuilder {
 
         return ceo;
     }
+
+    private static Employee freeze(Employee employee, Map<String, List<Employee>> subordinates) {
+        List<Employee> original = subordinates.getOrDefault(employee.getId(), List.of());
+        List<Employee> frozen = new ArrayList<>(original.size());
+        for (Employee subordinate : original) {
+            frozen.add(freeze(subordinate, subordinates));
+        }
+        return new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getSalary(), employee.getManagerId(), frozen);
+    }
+
+    /**
+     * Computes the content hash of every subtree of a built hierarchy.
+     * A subtree hash covers only what the compliance rules read: IDs, salaries and structure.
+     * Uses a fast 64-bit non-cryptographic hash (FNV-1a over the ID, finished with the
+     * SplitMix64 mixer). Subordinate hashes are combined in order, because cached issues are
+     * replayed in the same pre-order as a fresh run: reordered subordinates must not hit.
+     */
+    public SubtreeHashes hashSubtrees(Employee ceo) {
+        if (ceo == null) {
+            throw new IllegalArgumentException("CEO cannot be null");
+        }
+
+        HashState state = new HashState();
+        hashSubtree(ceo, 0, state);
+        int count = state.count;
+        return new SubtreeHashes(Arrays.copyOf(state.employees, count), Arrays.copyOf(state.hashes, count),
+                Arrays.copyOf(state.sizes, count), Arrays.copyOf(state.levels, count));
+    }
+
+    private long hashSubtree(Employee employee, int level, HashState state) {
+        int position = state.add(employee, level);
+
+        long subordinates = 0;
+        for (Employee subordinate : employee.getSubordinates()) {
+            subordinates = mix(subordinates + hashSubtree(subordinate, level + 1, state));
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashString(hash, employee.getId());
+        hash = mix(hash ^ Double.doubleToLongBits(employee.getSalary()));
+        hash = mix(hash + subordinates + employee.getSubordinates().size());
+
+        state.hashes[position] = hash;
+        state.sizes[position] = state.count - position;
+        return hash;
+    }
+
+    private static long hashString(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ value.length()) * FNV_PRIME;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Growable pre-order arrays filled while hashing.
+     */
+    private static class HashState {
+        private Employee[] employees = new Employee[64];
+        private long[] hashes = new long[64];
+        private int[] sizes = new int[64];
+        private int[] levels = new int[64];
+        private int count;
+
+        int add(Employee employee, int level) {
+            if (count == employees.length) {
+                int capacity = count * 2;
+                employees = Arrays.copyOf(employees, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+            }
+            employees[count] = employee;
+            levels[count] = level;
+            return count++;
+        }
+    }
 }
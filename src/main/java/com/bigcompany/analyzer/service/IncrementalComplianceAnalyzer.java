@@ -0,0 +1,179 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.AnalysisCache.Issue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ResultCollector;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the {@link ComplianceAnalyzer} rules but reuses cached results for subtrees whose
+ * content hash and level are unchanged since a previous run, so only dirty paths are re-analyzed.
+ * When the whole organization is unchanged the root entry hits and no employee is checked at all.
+ * Only subtrees with at least {@code MIN_CACHED_SUBTREE_SIZE} employees are cached; smaller ones
+ * are cheaper to re-analyze than to store.
+ */
+public class IncrementalComplianceAnalyzer {
+    private static final int MIN_CACHED_SUBTREE_SIZE = 32;
+
+    private int reusedEmployees;
+
+    /**
+     * Analyzes the hierarchy described by the hashes. The employee map (as passed to
+     * {@link HierarchyBuilder#buildHierarchy(Map)}) resolves the IDs of cached issues.
+     */
+    public AnalysisResult analyze(SubtreeHashes hashes, Map<String, Employee> employees, AnalysisCache cache) {
+        reusedEmployees = 0;
+        List<Issue> issues = new ArrayList<>();
+        analyzeSubtree(0, hashes, cache, new IssueLog(issues), null);
+
+        // Nothing to prune when every subtree was served from the cache
+        if (cache.isModified()) {
+            Set<Long> liveKeys = new HashSet<>();
+            for (int position = 0; position < hashes.size(); position++) {
+                if (hashes.getSubtreeSize(position) >= MIN_CACHED_SUBTREE_SIZE) {
+                    liveKeys.add(keyOf(hashes, position));
+                }
+            }
+            cache.retainKeys(liveKeys);
+        }
+
+        return resolve(issues, employees);
+    }
+
+    /**
+     * Number of employees whose issues were taken from the cache in the last run.
+     */
+    public int getReusedEmployees() {
+        return reusedEmployees;
+    }
+
+    /**
+     * Analyzes the subtree at a pre-order position. Issues are appended to the log; issues that
+     * are not inside a cacheable subtree of their own are also added to the enclosing cache entry.
+     */
+    private void analyzeSubtree(int position, SubtreeHashes hashes, AnalysisCache cache,
+                                IssueLog log, List<Issue> enclosingEntry) {
+        int size = hashes.getSubtreeSize(position);
+        boolean cacheable = size >= MIN_CACHED_SUBTREE_SIZE;
+        long key = 0;
+        List<Issue> entryIssues = enclosingEntry;
+        if (cacheable) {
+            key = keyOf(hashes, position);
+            int mark = log.issues.size();
+            if (expand(key, cache, log.issues)) {
+                reusedEmployees += size;
+                return;
+            }
+            log.issues.subList(mark, log.issues.size()).clear(); // partially expanded entry
+            entryIssues = new ArrayList<>();
+        }
+
+        int start = log.issues.size();
+        Employee employee = hashes.getEmployee(position);
+        ComplianceAnalyzer.checkReportingLine(employee, hashes.getLevel(position), log);
+        if (employee.isManager()) {
+            ComplianceAnalyzer.analyzeSalaryCompliance(employee, log);
+        }
+        if (entryIssues != null) {
+            entryIssues.addAll(log.issues.subList(start, log.issues.size()));
+        }
+
+        List<Long> childKeys = new ArrayList<>();
+        List<Integer> childOffsets = new ArrayList<>();
+        for (int child = position + 1; child < position + size; child += hashes.getSubtreeSize(child)) {
+            if (hashes.getSubtreeSize(child) >= MIN_CACHED_SUBTREE_SIZE) {
+                childKeys.add(keyOf(hashes, child));
+                childOffsets.add(entryIssues.size());
+            }
+            analyzeSubtree(child, hashes, cache, log, entryIssues);
+        }
+
+        if (cacheable) {
+            cache.put(key, entryIssues, childKeys.stream().mapToLong(Long::longValue).toArray(),
+                    childOffsets.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Appends the issues of a cached subtree in pre-order, expanding each child entry at the
+     * point where its subtree starts, so the result matches {@link ComplianceAnalyzer}.
+     * Returns false if any entry is missing.
+     */
+    private boolean expand(long key, AnalysisCache cache, List<Issue> issues) {
+        AnalysisCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            return false;
+        }
+        int emitted = 0;
+        for (int i = 0; i < entry.childKeys().length; i++) {
+            int offset = entry.childOffsets()[i];
+            issues.addAll(entry.issues().subList(emitted, offset));
+            emitted = offset;
+            if (!expand(entry.childKeys()[i], cache, issues)) {
+                return false;
+            }
+        }
+        issues.addAll(entry.issues().subList(emitted, entry.issues().size()));
+        return true;
+    }
+
+    private static long keyOf(SubtreeHashes hashes, int position) {
+        return AnalysisCache.key(hashes.getHash(position), hashes.getLevel(position));
+    }
+
+    private AnalysisResult resolve(List<Issue> issues, Map<String, Employee> employees) {
+        ResultCollector collector = new ResultCollector();
+        for (Issue issue : issues) {
+            Employee employee = employees.get(issue.employeeId());
+            switch (issue.kind()) {
+                case UNDERPAID -> collector.addUnderpaidManager(new SalaryIssue(
+                        employee, issue.actualSalary(), issue.expectedSalary(), issue.difference()));
+                case OVERPAID -> collector.addOverpaidManager(new SalaryIssue(
+                        employee, issue.actualSalary(), issue.expectedSalary(), issue.difference()));
+                case REPORTING_LINE -> collector.addReportingLineIssue(new ReportingLineIssue(
+                        employee, issue.level(), issue.excessLevels()));
+            }
+        }
+        return collector.buildResult();
+    }
+
+    /**
+     * Records issues in ID form, in traversal order, so each subtree's issues form a contiguous range.
+     */
+    private static class IssueLog extends ResultCollector {
+        private final List<Issue> issues;
+
+        IssueLog(List<Issue> issues) {
+            this.issues = issues;
+        }
+
+        @Override
+        public void addUnderpaidManager(SalaryIssue issue) {
+            issues.add(salaryIssue(Issue.Kind.UNDERPAID, issue));
+        }
+
+        @Override
+        public void addOverpaidManager(SalaryIssue issue) {
+            issues.add(salaryIssue(Issue.Kind.OVERPAID, issue));
+        }
+
+        @Override
+        public void addReportingLineIssue(ReportingLineIssue issue) {
+            issues.add(new Issue(Issue.Kind.REPORTING_LINE, issue.getEmployee().getId(),
+                    0, 0, 0, issue.getActualLevel(), issue.getExcessLevels()));
+        }
+
+        private static Issue salaryIssue(Issue.Kind kind, SalaryIssue issue) {
+            return new Issue(kind, issue.getEmployee().getId(), issue.getActualSalary(),
+                    issue.getExpectedSalary(), issue.getDifference(), 0, 0);
+        }
+    }
+}
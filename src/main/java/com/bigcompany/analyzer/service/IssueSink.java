@@ -0,0 +1,18 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+
+import java.io.IOException;
+
+/**
+ * Receives compliance issues as they are found, so analyzers can stream results
+ * to any destination without knowing its format.
+ */
+public interface IssueSink {
+    void addUnderpaidManager(SalaryIssue issue) throws IOException;
+
+    void addOverpaidManager(SalaryIssue issue) throws IOException;
+
+    void addReportingLineIssue(ReportingLineIssue issue) throws IOException;
+}
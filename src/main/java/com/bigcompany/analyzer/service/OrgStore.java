@@ -0,0 +1,395 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ResultCollector;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Versioned organization store with snapshot-isolated reads.
+ * Each version is an immutable {@link Snapshot} of the hierarchy and its analysis result.
+ * Writers apply batches of changes one at a time by path copying: only changed employees,
+ * their old and new managers and the ancestors of those (the dirty path) are copied, all other
+ * employees are shared with the previous version. Each copy takes its subordinate list in one
+ * pass over the original's. Salary bands are re-checked only for changed employees and their old
+ * and new managers, reporting lines only inside moved subtrees; the issues of other copied
+ * employees are carried over to the copies. The employee lookup and the issues (keyed by
+ * employee ID) are kept in persistent hash maps, so a batch costs
+ * O(Σ fan-out of the dirty path + size of moved subtrees + changes · log n), independent of the
+ * number of issues.
+ * Readers just read the current snapshot reference, so they never block and never see a
+ * half-applied batch.
+ * Employees reachable from a snapshot are shared between versions and frozen:
+ * {@link Employee#addSubordinate} throws on them.
+ */
+public class OrgStore {
+    private final Object writeLock = new Object();
+    private volatile Snapshot current;
+
+    /**
+     * Builds the first version from frozen copies of the given employees, so later changes to
+     * them do not leak into the store.
+     */
+    public OrgStore(Map<String, Employee> employees) {
+        Employee ceo = new HierarchyBuilder().buildFrozenHierarchy(employees);
+        AnalysisResult result = new ComplianceAnalyzer().analyze(ceo);
+        PersistentHashMap<String, Employee> lookup = lookup(ceo, PersistentHashMap.empty());
+
+        this.current = new Snapshot(0, ceo, lookup,
+                index(PersistentHashMap.empty(), result.getUnderpaidManagers(), SalaryIssue::getEmployee),
+                index(PersistentHashMap.empty(), result.getOverpaidManagers(), SalaryIssue::getEmployee),
+                index(PersistentHashMap.empty(), result.getReportingLineIssues(), ReportingLineIssue::getEmployee));
+    }
+
+    /**
+     * Returns the latest committed version. Never blocks.
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Applies all changes atomically and returns the new version. Later changes to the same
+     * employee in a batch override earlier ones. Invalid batches are rejected as a whole.
+     */
+    public Snapshot apply(List<Change> changes) {
+        synchronized (writeLock) {
+            if (changes.isEmpty()) {
+                return current;
+            }
+            Snapshot next = new Batch(current, changes).apply();
+            current = next;
+            return next;
+        }
+    }
+
+    private static PersistentHashMap<String, Employee> lookup(Employee employee,
+                                                             PersistentHashMap<String, Employee> lookup) {
+        lookup = lookup.put(employee.getId(), employee);
+        for (Employee subordinate : employee.getSubordinates()) {
+            lookup = lookup(subordinate, lookup);
+        }
+        return lookup;
+    }
+
+    private static Employee copyOf(Employee employee, double salary, String managerId, List<Employee> subordinates) {
+        return new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(), salary, managerId,
+                subordinates);
+    }
+
+    private static <T> PersistentHashMap<String, T> index(PersistentHashMap<String, T> issues, List<T> additions,
+                                                          Function<T, Employee> employeeOf) {
+        for (T issue : additions) {
+            issues = issues.put(employeeOf.apply(issue).getId(), issue);
+        }
+        return issues;
+    }
+
+    /**
+     * A salary and/or manager change for one employee.
+     */
+    public static final class Change {
+        private final String employeeId;
+        private final Double salary;
+        private final String managerId;
+
+        private Change(String employeeId, Double salary, String managerId) {
+            if (employeeId == null) {
+                throw new IllegalArgumentException("Employee ID cannot be null");
+            }
+            this.employeeId = employeeId;
+            this.salary = salary;
+            this.managerId = managerId;
+        }
+
+        public static Change salary(String employeeId, double salary) {
+            return new Change(employeeId, salary, null);
+        }
+
+        public static Change manager(String employeeId, String managerId) {
+            if (managerId == null) {
+                throw new IllegalArgumentException("Manager ID cannot be null");
+            }
+            return new Change(employeeId, null, managerId);
+        }
+
+        public String getEmployeeId() { return employeeId; }
+    }
+
+    /**
+     * One immutable version of the organization.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Employee ceo;
+        private final PersistentHashMap<String, Employee> employees;
+        private final PersistentHashMap<String, SalaryIssue> underpaidManagers;
+        private final PersistentHashMap<String, SalaryIssue> overpaidManagers;
+        private final PersistentHashMap<String, ReportingLineIssue> reportingLineIssues;
+        private volatile AnalysisResult result;
+
+        private Snapshot(long version, Employee ceo, PersistentHashMap<String, Employee> employees,
+                         PersistentHashMap<String, SalaryIssue> underpaidManagers,
+                         PersistentHashMap<String, SalaryIssue> overpaidManagers,
+                         PersistentHashMap<String, ReportingLineIssue> reportingLineIssues) {
+            this.version = version;
+            this.ceo = ceo;
+            this.employees = employees;
+            this.underpaidManagers = underpaidManagers;
+            this.overpaidManagers = overpaidManagers;
+            this.reportingLineIssues = reportingLineIssues;
+        }
+
+        public long getVersion() { return version; }
+        public Employee getCeo() { return ceo; }
+
+        /**
+         * Returns all issues of this version, built on first use. Unlike {@link ComplianceAnalyzer},
+         * issues are in no particular order; use the per-employee getters for lookups.
+         */
+        public AnalysisResult getResult() {
+            AnalysisResult built = result;
+            if (built == null) {
+                ResultCollector collector = new ResultCollector();
+                underpaidManagers.forEach((id, issue) -> collector.addUnderpaidManager(issue));
+                overpaidManagers.forEach((id, issue) -> collector.addOverpaidManager(issue));
+                reportingLineIssues.forEach((id, issue) -> collector.addReportingLineIssue(issue));
+                built = collector.buildResult();
+                result = built;
+            }
+            return built;
+        }
+
+        public Employee getEmployee(String employeeId) {
+            return employees.get(employeeId);
+        }
+
+        public SalaryIssue getUnderpaidIssue(String employeeId) {
+            return underpaidManagers.get(employeeId);
+        }
+
+        public SalaryIssue getOverpaidIssue(String employeeId) {
+            return overpaidManagers.get(employeeId);
+        }
+
+        public ReportingLineIssue getReportingLineIssue(String employeeId) {
+            return reportingLineIssues.get(employeeId);
+        }
+
+        public int size() {
+            return employees.size();
+        }
+    }
+
+    /**
+     * Builds the next snapshot from a base snapshot and a batch of changes.
+     */
+    private static final class Batch {
+        private final Snapshot base;
+        private final Map<String, Double> salaries = new LinkedHashMap<>();
+        private final Map<String, String> managers = new LinkedHashMap<>();
+        private final Set<String> dirty = new HashSet<>();
+        private final Set<String> salaryChecks = new HashSet<>();
+        private final Map<String, List<String>> movedIn = new HashMap<>();
+        private final Map<String, Employee> copies = new HashMap<>();
+        private final Set<String> relevelled = new HashSet<>();
+
+        Batch(Snapshot base, List<Change> changes) {
+            this.base = base;
+            for (Change change : changes) {
+                Employee employee = base.getEmployee(change.employeeId);
+                if (employee == null) {
+                    throw new IllegalArgumentException("Employee not found: " + change.employeeId);
+                }
+                if (change.salary != null) {
+                    if (change.salary < 0) {
+                        throw new IllegalArgumentException("Salary cannot be negative");
+                    }
+                    salaries.put(change.employeeId, change.salary);
+                }
+                if (change.managerId != null) {
+                    if (employee.isCeo()) {
+                        throw new IllegalArgumentException("Cannot assign a manager to the CEO " + employee);
+                    }
+                    if (base.getEmployee(change.managerId) == null) {
+                        throw new IllegalArgumentException("Manager not found: " + change.managerId);
+                    }
+                    managers.put(change.employeeId, change.managerId);
+                }
+            }
+        }
+
+        Snapshot apply() {
+            checkForCycles();
+
+            // A manager's band depends on its own salary and on its direct subordinates
+            for (String id : salaries.keySet()) {
+                markWithAncestors(id);
+                salaryChecks.add(id);
+                salaryChecks.add(managerOf(id));
+            }
+            for (Map.Entry<String, String> move : managers.entrySet()) {
+                String oldManagerId = base.getEmployee(move.getKey()).getManagerId();
+                markWithAncestors(move.getKey());
+                markWithAncestors(oldManagerId);
+                salaryChecks.add(oldManagerId);
+                salaryChecks.add(move.getValue());
+                if (!move.getValue().equals(oldManagerId)) {
+                    movedIn.computeIfAbsent(move.getValue(), managerId -> new ArrayList<>()).add(move.getKey());
+                }
+            }
+            salaryChecks.remove(null);
+
+            for (String id : dirty) {
+                copy(id);
+            }
+            AnalysisResult recomputed = recomputeIssues();
+
+            // Issues of untouched employees are kept; they still refer to shared employee instances
+            PersistentHashMap<String, Employee> employees = base.employees;
+            PersistentHashMap<String, SalaryIssue> underpaid = base.underpaidManagers;
+            PersistentHashMap<String, SalaryIssue> overpaid = base.overpaidManagers;
+            PersistentHashMap<String, ReportingLineIssue> reportingLines = base.reportingLineIssues;
+            for (Employee copy : copies.values()) {
+                String id = copy.getId();
+                employees = employees.put(id, copy);
+                if (salaryChecks.contains(id)) {
+                    underpaid = underpaid.remove(id);
+                    overpaid = overpaid.remove(id);
+                } else {
+                    underpaid = carryOver(underpaid, copy);
+                    overpaid = carryOver(overpaid, copy);
+                }
+                ReportingLineIssue issue = reportingLines.get(id);
+                if (issue != null && !relevelled.contains(id)) {
+                    reportingLines = reportingLines.put(id,
+                            new ReportingLineIssue(copy, issue.getActualLevel(), issue.getExcessLevels()));
+                }
+            }
+            for (String id : relevelled) {
+                reportingLines = reportingLines.remove(id);
+            }
+
+            Employee ceo = copies.get(base.getCeo().getId());
+            return new Snapshot(base.getVersion() + 1, ceo, employees,
+                    index(underpaid, recomputed.getUnderpaidManagers(), SalaryIssue::getEmployee),
+                    index(overpaid, recomputed.getOverpaidManagers(), SalaryIssue::getEmployee),
+                    index(reportingLines, recomputed.getReportingLineIssues(), ReportingLineIssue::getEmployee));
+        }
+
+        private String managerOf(String id) {
+            String managerId = managers.get(id);
+            return managerId != null ? managerId : base.getEmployee(id).getManagerId();
+        }
+
+        private int levelOf(String id) {
+            int level = 0;
+            for (String managerId = managerOf(id); managerId != null; managerId = managerOf(managerId)) {
+                level++;
+            }
+            return level;
+        }
+
+        private void checkForCycles() {
+            for (String moved : managers.keySet()) {
+                int steps = 0;
+                for (String managerId = managerOf(moved); managerId != null; managerId = managerOf(managerId)) {
+                    if (managerId.equals(moved) || ++steps > base.size()) {
+                        throw new IllegalArgumentException("Reassigning " + moved + " would create a cycle in reporting lines");
+                    }
+                }
+            }
+        }
+
+        /**
+         * Marks an employee and all its (new) managers. Stops at the first already marked
+         * employee, since its managers are marked too.
+         */
+        private void markWithAncestors(String id) {
+            while (id != null && dirty.add(id)) {
+                id = managerOf(id);
+            }
+        }
+
+        /**
+         * Copies a dirty employee after its dirty subordinates, in one pass over the original's
+         * subordinates plus the employees moved in.
+         */
+        private Employee copy(String id) {
+            Employee copy = copies.get(id);
+            if (copy != null) {
+                return copy;
+            }
+
+            Employee old = base.getEmployee(id);
+            List<String> arrivals = movedIn.getOrDefault(id, List.of());
+            List<Employee> subordinates = new ArrayList<>(old.getSubordinates().size() + arrivals.size());
+            for (Employee subordinate : old.getSubordinates()) {
+                String managerId = managers.get(subordinate.getId());
+                if (managerId == null || managerId.equals(id)) { // skip employees moved away
+                    subordinates.add(dirty.contains(subordinate.getId()) ? copy(subordinate.getId()) : subordinate);
+                }
+            }
+            for (String movedId : arrivals) {
+                subordinates.add(copy(movedId));
+            }
+
+            copy = copyOf(old, salaries.getOrDefault(id, old.getSalary()), managerOf(id), subordinates);
+            copies.put(id, copy);
+            return copy;
+        }
+
+        /**
+         * Re-checks salary bands that can have changed and the levels of moved subtrees.
+         */
+        private AnalysisResult recomputeIssues() {
+            ResultCollector fresh = new ResultCollector();
+            for (String id : managers.keySet()) {
+                recheckLevels(copies.get(id), levelOf(id), fresh);
+            }
+            for (String id : salaryChecks) {
+                Employee copy = copies.get(id);
+                if (copy.isManager()) {
+                    ComplianceAnalyzer.analyzeSalaryCompliance(copy, fresh);
+                }
+            }
+            return fresh.buildResult();
+        }
+
+        /**
+         * Re-checks reporting line length for a moved employee and everyone below it.
+         */
+        private void recheckLevels(Employee employee, int level, ResultCollector collector) {
+            if (!relevelled.add(employee.getId())) {
+                return;
+            }
+            ComplianceAnalyzer.checkReportingLine(employee, level, collector);
+            for (Employee subordinate : employee.getSubordinates()) {
+                recheckLevels(subordinate, level + 1, collector);
+            }
+        }
+
+        /**
+         * Points an unchanged salary issue at the employee's copy.
+         */
+        private static PersistentHashMap<String, SalaryIssue> carryOver(PersistentHashMap<String, SalaryIssue> issues,
+                                                                        Employee copy) {
+            SalaryIssue issue = issues.get(copy.getId());
+            if (issue == null) {
+                return issues;
+            }
+            return issues.put(copy.getId(), new SalaryIssue(copy, issue.getActualSalary(),
+                    issue.getExpectedSalary(), issue.getDifference()));
+        }
+    }
+}
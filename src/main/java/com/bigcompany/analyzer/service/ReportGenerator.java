@@ -4,22 +4,42 @@ import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
 import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
 import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Generates human-readable reports from analysis results.
  */
 public class ReportGenerator {
+    private static final String TITLE = "=== ORGANIZATIONAL STRUCTURE ANALYSIS REPORT ===\n\n";
+    private static final String NO_ISSUES = "No compliance issues found. Organization structure is compliant.\n";
+
+    private static final String NO_UNDERPAID = "No underpaid managers found.\n\n";
+    private static final String UNDERPAID_HEADER = "MANAGERS EARNING LESS THAN THEY SHOULD:\n"
+            + "(Should earn at least 20% more than average of direct subordinates)\n\n";
+    private static final String NO_OVERPAID = "No overpaid managers found.\n\n";
+    private static final String OVERPAID_HEADER = "MANAGERS EARNING MORE THAN THEY SHOULD:\n"
+            + "(Should earn at most 50% more than average of direct subordinates)\n\n";
+    private static final String NO_REPORTING_LINE = "No excessive reporting line issues found.\n\n";
+    private static final String REPORTING_LINE_HEADER = "EMPLOYEES WITH REPORTING LINES TOO LONG:\n"
+            + "(Should have at most 4 managers between them and CEO)\n\n";
 
     public String generateReport(AnalysisResult result) {
         StringBuilder report = new StringBuilder();
 
-        report.append("=== ORGANIZATIONAL STRUCTURE ANALYSIS REPORT ===\n\n");
+        report.append(TITLE);
 
         generateUnderpaidManagersReport(result, report);
         generateOverpaidManagersReport(result, report);
         generateReportingLineReport(result, report);
 
         if (!result.hasIssues()) {
-            report.append("No compliance issues found. Organization structure is compliant.\n");
+            report.append(NO_ISSUES);
         }
 
         return report.toString();
@@ -27,52 +47,143 @@ public class ReportGenerator {
 
     private void generateUnderpaidManagersReport(AnalysisResult result, StringBuilder report) {
         if (result.getUnderpaidManagers().isEmpty()) {
-            report.append("No underpaid managers found.\n\n");
+            report.append(NO_UNDERPAID);
             return;
         }
 
-        report.append("MANAGERS EARNING LESS THAN THEY SHOULD:\n");
-        report.append("(Should earn at least 20% more than average of direct subordinates)\n\n");
+        report.append(UNDERPAID_HEADER);
 
         for (SalaryIssue issue : result.getUnderpaidManagers()) {
-            report.append(String.format("• %s earns $%.2f less than minimum allowed\n",
-                    issue.getEmployee(), issue.getDifference()));
-            report.append(String.format("  Current: $%.2f, Minimum allowed: $%.2f\n\n",
-                    issue.getActualSalary(), issue.getExpectedSalary()));
+            report.append(formatUnderpaid(issue));
         }
     }
 
     private void generateOverpaidManagersReport(AnalysisResult result, StringBuilder report) {
         if (result.getOverpaidManagers().isEmpty()) {
-            report.append("No overpaid managers found.\n\n");
+            report.append(NO_OVERPAID);
             return;
         }
 
-        report.append("MANAGERS EARNING MORE THAN THEY SHOULD:\n");
-        report.append("(Should earn at most 50% more than average of direct subordinates)\n\n");
+        report.append(OVERPAID_HEADER);
 
         for (SalaryIssue issue : result.getOverpaidManagers()) {
-            report.append(String.format("• %s earns $%.2f more than maximum allowed\n",
-                    issue.getEmployee(), issue.getDifference()));
-            report.append(String.format("  Current: $%.2f, Maximum allowed: $%.2f\n\n",
-                    issue.getActualSalary(), issue.getExpectedSalary()));
+            report.append(formatOverpaid(issue));
         }
     }
 
     private void generateReportingLineReport(AnalysisResult result, StringBuilder report) {
         if (result.getReportingLineIssues().isEmpty()) {
-            report.append("No excessive reporting line issues found.\n\n");
+            report.append(NO_REPORTING_LINE);
             return;
         }
 
-        report.append("EMPLOYEES WITH REPORTING LINES TOO LONG:\n");
-        report.append("(Should have at most 4 managers between them and CEO)\n\n");
+        report.append(REPORTING_LINE_HEADER);
 
         for (ReportingLineIssue issue : result.getReportingLineIssues()) {
-            report.append(String.format("• %s has reporting line too long by %d level(s)\n",
-                    issue.getEmployee(), issue.getExcessLevels()));
-            report.append(String.format("  Current level: %d, Maximum allowed: 4\n\n",
-                    issue.getActualLevel()));
+            report.append(formatReportingLine(issue));
+        }
+    }
+
+    private static String formatUnderpaid(SalaryIssue issue) {
+        return String.format("• %s earns $%.2f less than minimum allowed\n", issue.getEmployee(), issue.getDifference())
+                + String.format("  Current: $%.2f, Minimum allowed: $%.2f\n\n",
+                        issue.getActualSalary(), issue.getExpectedSalary());
+    }
+
+    private static String formatOverpaid(SalaryIssue issue) {
+        return String.format("• %s earns $%.2f more than maximum allowed\n", issue.getEmployee(), issue.getDifference())
+                + String.format("  Current: $%.2f, Maximum allowed: $%.2f\n\n",
+                        issue.getActualSalary(), issue.getExpectedSalary());
+    }
+
+    private static String formatReportingLine(ReportingLineIssue issue) {
+        return String.format("• %s has reporting line too long by %d level(s)\n",
+                issue.getEmployee(), issue.getExcessLevels())
+                + String.format("  Current level: %d, Maximum allowed: 4\n\n", issue.getActualLevel());
+    }
+
+    /**
+     * Builds the same report as {@link #generateReport(AnalysisResult)} from streamed issues.
+     * Each section is spilled to a temporary file as issues arrive, so memory use does not grow
+     * with the number of issues. Call {@link #writeTo(Writer)} once the analysis has finished;
+     * closing the report deletes the temporary files.
+     */
+    public static class StreamingReport implements IssueSink, Closeable {
+        private final Path workDir;
+        private final Path[] sectionFiles = new Path[3];
+        private final BufferedWriter[] sections = new BufferedWriter[3];
+        private final long[] counts = new long[3];
+
+        public StreamingReport(Path tempDir) throws IOException {
+            this.workDir = Files.createTempDirectory(tempDir, "org-report-");
+            try {
+                for (int i = 0; i < sections.length; i++) {
+                    sectionFiles[i] = workDir.resolve("section-" + i + ".txt");
+                    sections[i] = Files.newBufferedWriter(sectionFiles[i]);
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void addUnderpaidManager(SalaryIssue issue) throws IOException {
+            append(0, formatUnderpaid(issue));
+        }
+
+        @Override
+        public void addOverpaidManager(SalaryIssue issue) throws IOException {
+            append(1, formatOverpaid(issue));
+        }
+
+        @Override
+        public void addReportingLineIssue(ReportingLineIssue issue) throws IOException {
+            append(2, formatReportingLine(issue));
+        }
+
+        public void writeTo(Writer out) throws IOException {
+            for (BufferedWriter section : sections) {
+                section.flush();
+            }
+
+            out.write(TITLE);
+            writeSection(out, 0, NO_UNDERPAID, UNDERPAID_HEADER);
+            writeSection(out, 1, NO_OVERPAID, OVERPAID_HEADER);
+            writeSection(out, 2, NO_REPORTING_LINE, REPORTING_LINE_HEADER);
+            if (counts[0] + counts[1] + counts[2] == 0) {
+                out.write(NO_ISSUES);
+            }
+        }
+
+        private void append(int section, String text) throws IOException {
+            sections[section].write(text);
+            counts[section]++;
+        }
+
+        private void writeSection(Writer out, int section, String emptyMessage, String header) throws IOException {
+            if (counts[section] == 0) {
+                out.write(emptyMessage);
+                return;
+            }
+
+            out.write(header);
+            try (BufferedReader in = Files.newBufferedReader(sectionFiles[section])) {
+                in.transferTo(out);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < sections.length; i++) {
+                if (sections[i] != null) {
+                    sections[i].close();
+                }
+                if (sectionFiles[i] != null) {
+                    Files.deleteIfExists(sectionFiles[i]);
+                }
+            }
+            Files.deleteIfExists(workDir);
         }
     }
-}
\ No newline at end of file
+}
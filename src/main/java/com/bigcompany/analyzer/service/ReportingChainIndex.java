@@ -0,0 +1,159 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers chain-of-command queries over a built hierarchy.
+ * Employees are numbered in breadth-first order and indexed with binary lifting
+ * (jump[k][v] is the 2^k-th manager of v), so k-th manager and lowest common manager
+ * queries take O(log depth) array lookups. Since reporting lines are short, the table
+ * has only log2(max depth) rows and building it is linear in the number of employees.
+ */
+public class ReportingChainIndex {
+    private static final int NO_MANAGER = -1;
+
+    private final Map<String, Integer> indexById;
+    private final Employee[] employees;
+    private final int[] depths;
+    private final int[][] jump;
+
+    public ReportingChainIndex(Employee ceo) {
+        if (ceo == null) {
+            throw new IllegalArgumentException("CEO cannot be null");
+        }
+
+        // The order list doubles as the breadth-first queue
+        List<Employee> order = new ArrayList<>();
+        int[] managers = new int[16];
+        order.add(ceo);
+        managers[0] = NO_MANAGER;
+        for (int index = 0; index < order.size(); index++) {
+            for (Employee subordinate : order.get(index).getSubordinates()) {
+                if (order.size() == managers.length) {
+                    managers = Arrays.copyOf(managers, managers.length * 2);
+                }
+                managers[order.size()] = index;
+                order.add(subordinate);
+            }
+        }
+
+        int size = order.size();
+        this.employees = order.toArray(new Employee[0]);
+        this.indexById = new HashMap<>(size * 2);
+        this.depths = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexById.put(employees[i].getId(), i);
+            // breadth-first order guarantees the manager was numbered first
+            depths[i] = i == 0 ? 0 : depths[managers[i]] + 1;
+        }
+
+        int maxDepth = depths[size - 1];
+        int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+        this.jump = new int[levels][size];
+        System.arraycopy(managers, 0, jump[0], 0, size);
+        for (int k = 1; k < levels; k++) {
+            for (int i = 0; i < size; i++) {
+                int half = jump[k - 1][i];
+                jump[k][i] = half == NO_MANAGER ? NO_MANAGER : jump[k - 1][half];
+            }
+        }
+    }
+
+    public int size() {
+        return employees.length;
+    }
+
+    /**
+     * Returns the employee's level in the hierarchy (CEO is at level 0).
+     */
+    public int getLevel(String employeeId) {
+        return depths[indexOf(employeeId)];
+    }
+
+    /**
+     * Returns the k-th manager up the reporting line (k = 1 is the direct manager),
+     * the employee itself for k = 0, or null when k exceeds the employee's level.
+     */
+    public Employee getManager(String employeeId, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        int index = ancestor(indexOf(employeeId), k);
+        return index == NO_MANAGER ? null : employees[index];
+    }
+
+    /**
+     * Returns the full reporting chain starting with the direct manager and ending with the CEO.
+     */
+    public List<Employee> getReportingChain(String employeeId) {
+        int index = indexOf(employeeId);
+        List<Employee> chain = new ArrayList<>(depths[index]);
+        for (int manager = jump[0][index]; manager != NO_MANAGER; manager = jump[0][manager]) {
+            chain.add(employees[manager]);
+        }
+        return chain;
+    }
+
+    /**
+     * Returns the lowest manager both employees report to. If one employee is in the
+     * other's reporting chain, that employee is returned.
+     */
+    public Employee getLowestCommonManager(String firstId, String secondId) {
+        return employees[lowestCommonManager(indexOf(firstId), indexOf(secondId))];
+    }
+
+    /**
+     * Returns the number of reporting steps on the path between two employees.
+     */
+    public int getDistance(String firstId, String secondId) {
+        int first = indexOf(firstId);
+        int second = indexOf(secondId);
+        int common = lowestCommonManager(first, second);
+        return depths[first] + depths[second] - 2 * depths[common];
+    }
+
+    private int lowestCommonManager(int first, int second) {
+        if (depths[first] < depths[second]) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        first = ancestor(first, depths[first] - depths[second]);
+        if (first == second) {
+            return first;
+        }
+        for (int k = jump.length - 1; k >= 0; k--) {
+            if (jump[k][first] != jump[k][second]) {
+                first = jump[k][first];
+                second = jump[k][second];
+            }
+        }
+        return jump[0][first];
+    }
+
+    private int ancestor(int index, int k) {
+        if (k > depths[index]) {
+            return NO_MANAGER;
+        }
+        for (int bit = 0; k != 0; bit++, k >>>= 1) {
+            if ((k & 1) != 0) {
+                index = jump[bit][index];
+            }
+        }
+        return index;
+    }
+
+    private int indexOf(String employeeId) {
+        Integer index = indexById.get(employeeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Employee not found in hierarchy: " + employeeId);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+
+/**
+ * Merkle-style content hashes of every subtree in a hierarchy.
+ * A subtree hash covers the employee's ID and salary plus the hashes of all direct
+ * subordinates, so two subtrees with equal hashes yield the same compliance issues.
+ * Employees are stored in pre-order: the subtree rooted at position p occupies positions
+ * p .. p + getSubtreeSize(p) - 1, and its first subordinate (if any) is at p + 1.
+ * Built by {@link HierarchyBuilder#hashSubtrees(Employee)}.
+ */
+public class SubtreeHashes {
+    private final Employee[] employees;
+    private final long[] hashes;
+    private final int[] sizes;
+    private final int[] levels;
+
+    SubtreeHashes(Employee[] employees, long[] hashes, int[] sizes, int[] levels) {
+        this.employees = employees;
+        this.hashes = hashes;
+        this.sizes = sizes;
+        this.levels = levels;
+    }
+
+    public int size() {
+        return employees.length;
+    }
+
+    public Employee getEmployee(int position) {
+        return employees[position];
+    }
+
+    public long getHash(int position) {
+        return hashes[position];
+    }
+
+    /**
+     * Returns the number of employees in the subtree rooted at the position, including its root.
+     */
+    public int getSubtreeSize(int position) {
+        return sizes[position];
+    }
+
+    /**
+     * Returns the level of the employee at the position (CEO is at level 0).
+     */
+    public int getLevel(int position) {
+        return levels[position];
+    }
+}
@@ -0,0 +1,156 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarResultWriterTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldRoundTripIssuesAcrossRowGroups(boolean compressed, @TempDir Path tempDir) throws IOException {
+        Employee manager = new Employee("7", "John", "Manager", 50000, "1");
+        Employee deep = new Employee("9", "Deep", "Employee", 30000, "8");
+        Path file = tempDir.resolve("issues.orgc");
+
+        // More issues than fit in one row group
+        int issueCount = ColumnarFormat.ROW_GROUP_SIZE + 10;
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(file, compressed)) {
+            for (int i = 0; i < issueCount; i++) {
+                if (i % 2 == 0) {
+                    writer.addUnderpaidManager(new SalaryIssue(manager, 50000, 55200 + i, 5200 + i));
+                } else {
+                    writer.addReportingLineIssue(new ReportingLineIssue(deep, 5 + i % 3, 1 + i % 3));
+                }
+            }
+            writer.commit();
+        }
+
+        try (ColumnarResultReader reader = new ColumnarResultReader(file)) {
+            assertEquals(issueCount, reader.getIssueCount());
+            assertEquals(2, reader.getRowGroupCount());
+            assertEquals(2, reader.getEmployeeCount());
+
+            int row = 0;
+            for (int g = 0; g < reader.getRowGroupCount(); g++) {
+                ColumnarResultReader.RowGroup group = reader.getRowGroup(g);
+                for (int r = 0; r < group.size(); r++, row++) {
+                    String id = reader.getEmployeeId(group.getEmployeeIndex(r));
+                    if (row % 2 == 0) {
+                        assertEquals(ColumnarResultReader.TYPE_UNDERPAID, group.getType(r));
+                        assertEquals("7", id);
+                        assertEquals(55200 + row, group.getExpectedSalary(r));
+                        assertEquals(5200 + row, group.getDifference(r));
+                    } else {
+                        assertEquals(ColumnarResultReader.TYPE_REPORTING_LINE, group.getType(r));
+                        assertEquals("Deep Employee", reader.getEmployeeName(group.getEmployeeIndex(r)));
+                        assertEquals(5 + row % 3, group.getLevel(r));
+                        assertEquals(1 + row % 3, group.getExcessLevels(r));
+                    }
+                }
+            }
+            assertEquals(issueCount, row);
+        }
+    }
+
+    @Test
+    void shouldStreamSameIssuesAsInMemoryAnalysis(@TempDir Path tempDir) throws IOException {
+        Employee ceo = new Employee("1", "CEO", "Person", 100000, null);
+        Employee l1 = new Employee("2", "L1", "Manager", 40000, "1");
+        Employee l2 = new Employee("3", "L2", "Manager", 80000, "2");
+        Employee l3 = new Employee("4", "L3", "Manager", 70000, "3");
+        Employee l4 = new Employee("5", "L4", "Manager", 60000, "4");
+        Employee l5 = new Employee("6", "L5", "Worker", 50000, "5");
+        ceo.addSubordinate(l1);
+        l1.addSubordinate(l2);
+        l2.addSubordinate(l3);
+        l3.addSubordinate(l4);
+        l4.addSubordinate(l5);
+
+        ComplianceAnalyzer analyzer = new ComplianceAnalyzer();
+        AnalysisResult expected = analyzer.analyze(ceo);
+        Path file = tempDir.resolve("issues.orgc");
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(file, false)) {
+            analyzer.analyze(ceo, writer);
+            writer.commit();
+        }
+
+        List<String> actual = new ArrayList<>();
+        try (ColumnarResultReader reader = new ColumnarResultReader(file)) {
+            for (int g = 0; g < reader.getRowGroupCount(); g++) {
+                ColumnarResultReader.RowGroup group = reader.getRowGroup(g);
+                for (int r = 0; r < group.size(); r++) {
+                    actual.add(group.getType(r) + ":" + reader.getEmployeeId(group.getEmployeeIndex(r)));
+                }
+            }
+        }
+
+        int expectedCount = expected.getUnderpaidManagers().size() + expected.getOverpaidManagers().size()
+                + expected.getReportingLineIssues().size();
+        assertTrue(expected.hasIssues());
+        assertEquals(expectedCount, actual.size());
+        assertTrue(actual.contains(ColumnarResultReader.TYPE_UNDERPAID + ":2"));
+        assertTrue(actual.contains(ColumnarResultReader.TYPE_REPORTING_LINE + ":6"));
+    }
+
+    @Test
+    void shouldLookUpDictionaryEntriesByIndex(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("issues.orgc");
+        int employeeCount = 5000;
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(file, false)) {
+            for (int i = 0; i < employeeCount; i++) {
+                Employee employee = new Employee("E" + i, "Fírst" + i, "Last" + i, 30000, "1");
+                writer.addReportingLineIssue(new ReportingLineIssue(employee, 5, 1));
+            }
+            writer.commit();
+        }
+
+        // Only the committed file is left behind
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+        try (ColumnarResultReader reader = new ColumnarResultReader(file)) {
+            assertEquals(employeeCount, reader.getEmployeeCount());
+            for (int i = employeeCount - 1; i >= 0; i -= 7) {
+                assertEquals("E" + i, reader.getEmployeeId(i));
+                assertEquals("Fírst" + i + " Last" + i, reader.getEmployeeName(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldLeaveNoFileWhenExportIsNotCommitted(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("issues.orgc");
+        Employee manager = new Employee("7", "John", "Manager", 50000, "1");
+        ColumnarResultWriter writer = new ColumnarResultWriter(file, false);
+        try (writer) {
+            writer.addUnderpaidManager(new SalaryIssue(manager, 50000, 55200, 5200));
+            // Export fails before commit
+        }
+
+        assertFalse(Files.exists(file));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, writer::commit);
+    }
+
+    @Test
+    void shouldRejectFileWithoutMagic(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("report.txt");
+        Files.writeString(file, "=== ORGANIZATIONAL STRUCTURE ANALYSIS REPORT ===");
+
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarResultReader(file));
+    }
+}
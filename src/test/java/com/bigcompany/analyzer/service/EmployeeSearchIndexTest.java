@@ -0,0 +1,116 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+import com.bigcompany.analyzer.service.EmployeeSearchIndex.Match;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSearchIndexTest {
+    private EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("123", new Employee("123", "Joe", "Doe", 60000, null));
+        employees.put("124", new Employee("124", "Martin", "Chekov", 45000, "123"));
+        employees.put("125", new Employee("125", "Bob", "Ronstad", 47000, "123"));
+        employees.put("300", new Employee("300", "Alice", "Hasacat", 50000, "124"));
+        employees.put("305", new Employee("305", "Marta", "Martinez", 34000, "300"));
+
+        Employee ceo = new HierarchyBuilder().buildHierarchy(employees);
+        AnalysisResult result = new ComplianceAnalyzer().analyze(ceo);
+        index = new EmployeeSearchIndex(employees.values(), result);
+    }
+
+    @Test
+    void shouldFindEmployeesByIdPrefix() {
+        List<Match> matches = index.search("12", 10);
+
+        assertEquals(List.of("123", "124", "125"), ids(matches));
+    }
+
+    @Test
+    void shouldFindEmployeesByNamePrefixIgnoringCase() {
+        // Marta matches on both first and last name but is returned once
+        List<Match> matches = index.search("MAR", 10);
+
+        assertEquals(List.of("305", "124"), ids(matches));
+    }
+
+    @Test
+    void shouldReturnComplianceStatus() {
+        Match martin = index.search("martin", 10).getFirst();
+        Match bob = index.search("bob", 10).getFirst();
+
+        assertEquals("124", martin.getEmployee().getId());
+        assertFalse(martin.isCompliant());
+        assertNotNull(martin.getUnderpaidIssue());
+        assertNull(martin.getOverpaidIssue());
+        assertTrue(bob.isCompliant());
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        assertEquals(1, index.search("1", 1).size());
+        assertTrue(index.search("zz", 10).isEmpty());
+    }
+
+    @Test
+    void shouldEstimateMemoryWithinPerEmployeeBound() {
+        // Every employee has three distinct keys of at most 8 characters and most have issues
+        int count = 10_000;
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("0", new Employee("0", "Chief", "Executive", 250000, null));
+        for (int i = 1; i < count; i++) {
+            String id = String.valueOf(i);
+            employees.put(id, new Employee(id, "F" + i, "L" + i, 30000 + i % 7 * 20000, String.valueOf((i - 1) / 2)));
+        }
+        AnalysisResult result = new ComplianceAnalyzer().analyze(new HierarchyBuilder().buildHierarchy(employees));
+        assertTrue(result.getReportingLineIssues().size() > count / 2);
+
+        EmployeeSearchIndex large = new EmployeeSearchIndex(employees.values(), result);
+        long estimate = large.estimateMemoryBytes();
+        SalaryIssue overpaid = result.getOverpaidManagers().getFirst();
+        Match match = large.search(overpaid.getEmployee().getId(), 1).getFirst();
+        assertSame(overpaid, match.getOverpaidIssue());
+        assertNull(match.getUnderpaidIssue());
+
+        // 48 bytes of array slots per employee, 40 bytes per key plus up to 8 for its characters
+        long arraySlots = 48L * count;
+        assertTrue(estimate >= arraySlots + 3L * count * 40, "estimate " + estimate);
+        assertTrue(estimate <= arraySlots + 3L * count * 48 + 6 * 24, "estimate " + estimate);
+    }
+
+    @Test
+    void shouldReturnEachEmployeeOnceForLargeResults() {
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("0", new Employee("0", "Chief", "Executive", 250000, null));
+        for (int i = 1; i < 500; i++) {
+            String id = String.valueOf(i);
+            employees.put(id, new Employee(id, "Sam" + i, "Samson", 50000, "0"));
+        }
+        EmployeeSearchIndex large = new EmployeeSearchIndex(employees.values(),
+                new ComplianceAnalyzer().analyze(new HierarchyBuilder().buildHierarchy(employees)));
+
+        List<Match> matches = large.search("sam", 1000);
+
+        assertEquals(499, matches.size());
+        assertEquals(499, matches.stream().map(match -> match.getEmployee().getId()).distinct().count());
+    }
+
+    @Test
+    void shouldThrowExceptionForEmptyPrefix() {
+        assertThrows(IllegalArgumentException.class, () ->
+                index.search(" ", 10));
+    }
+
+    private static List<String> ids(List<Match> matches) {
+        return matches.stream().map(match -> match.getEmployee().getId()).toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalMemoryAnalyzerTest {
+
+    @Test
+    void shouldMatchInMemoryAnalyzerWithTinyMemoryBudget(@TempDir Path tempDir) throws IOException {
+        // 1000 rows with a budget of 3 forces hundreds of runs and a multi-pass merge
+        Path csvFile = tempDir.resolve("org.csv");
+        Map<String, Employee> employees = TestOrganizations.ternaryTree(1000, -1);
+        TestOrganizations.writeCsv(employees, csvFile);
+
+        AnalysisResult expected = new ComplianceAnalyzer().analyze(new HierarchyBuilder().buildHierarchy(employees));
+
+        Path workDir = Files.createDirectory(tempDir.resolve("work"));
+        AnalysisResult actual = new ExternalMemoryAnalyzer(3, workDir).analyze(csvFile);
+
+        assertTrue(expected.hasIssues());
+        assertSalaryIssuesEqual(expected.getUnderpaidManagers(), actual.getUnderpaidManagers());
+        assertSalaryIssuesEqual(expected.getOverpaidManagers(), actual.getOverpaidManagers());
+        assertFalse(expected.getReportingLineIssues().isEmpty());
+        assertEquals(describeInLevelOrder(expected.getReportingLineIssues()),
+                actual.getReportingLineIssues().stream().map(ExternalMemoryAnalyzerTest::describe).toList());
+        try (Stream<Path> leftovers = Files.list(workDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void shouldStreamSameReportAsInMemoryAnalysis(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Jane,CEO,100000,
+            2,John,Manager,40000,1
+            3,Alice,Worker,50000,2
+            4,Bob,Worker,45000,3
+            5,Carol,Worker,40000,4
+            6,Dave,Worker,35000,5
+            """);
+
+        ReportGenerator reportGenerator = new ReportGenerator();
+        String expected = reportGenerator.generateReport(new ComplianceAnalyzer().analyze(
+                new HierarchyBuilder().buildHierarchy(new EmployeeParser().parseFromFile(csvFile))));
+
+        Path workDir = Files.createDirectory(tempDir.resolve("work"));
+        StringWriter actual = new StringWriter();
+        try (ReportGenerator.StreamingReport report = new ReportGenerator.StreamingReport(workDir)) {
+            new ExternalMemoryAnalyzer(2, workDir).analyze(csvFile, report);
+            report.writeTo(actual);
+        }
+
+        assertEquals(expected, actual.toString());
+        try (Stream<Path> leftovers = Files.list(workDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void shouldOrderReportingLineIssuesByLevelThenId(@TempDir Path tempDir) throws IOException {
+        // 9 reports to 4 and 8 reports to 5, so joining by manager alone would yield 9 before 8
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Jane,CEO,100000,
+            2,John,Manager,90000,1
+            3,Anna,Manager,80000,2
+            10,Lisa,Manager,70000,3
+            4,Mark,Lead,60000,10
+            5,Nina,Lead,60000,10
+            9,Omar,Worker,50000,4
+            8,Paul,Worker,50000,5
+            7,Rita,Worker,40000,9
+            """);
+
+        AnalysisResult result = new ExternalMemoryAnalyzer(2, tempDir).analyze(csvFile);
+
+        assertEquals(List.of("8", "9", "7"), result.getReportingLineIssues().stream()
+                .map(issue -> issue.getEmployee().getId()).toList());
+    }
+
+    @Test
+    void shouldThrowExceptionForDuplicateIds(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Jane,Smith,50000,123
+            124,John,Smith,50000,123
+            """);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new ExternalMemoryAnalyzer(1, tempDir).analyze(csvFile));
+    }
+
+    @Test
+    void shouldThrowExceptionForMissingManager(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Jane,Smith,50000,999
+            """);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new ExternalMemoryAnalyzer(1, tempDir).analyze(csvFile));
+    }
+
+    @Test
+    void shouldThrowExceptionForUnreachableEmployees(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Jane,Smith,50000,125
+            125,John,Smith,50000,124
+            """);
+
+        assertThrows(IllegalStateException.class, () ->
+                new ExternalMemoryAnalyzer(2, tempDir).analyze(csvFile));
+    }
+
+    // Salary issues come out in manager ID order
+    private static void assertSalaryIssuesEqual(List<SalaryIssue> expected, List<SalaryIssue> actual) {
+        List<SalaryIssue> sortedExpected = expected.stream()
+                .sorted(Comparator.comparing(issue -> issue.getEmployee().getId())).toList();
+
+        assertEquals(sortedExpected.size(), actual.size());
+        for (int i = 0; i < sortedExpected.size(); i++) {
+            assertEquals(sortedExpected.get(i).getEmployee(), actual.get(i).getEmployee());
+            assertEquals(sortedExpected.get(i).getExpectedSalary(), actual.get(i).getExpectedSalary(), 1e-6);
+            assertEquals(sortedExpected.get(i).getDifference(), actual.get(i).getDifference(), 1e-6);
+        }
+    }
+
+    // Reporting line issues come out level by level, then in ID order
+    private static List<String> describeInLevelOrder(List<ReportingLineIssue> issues) {
+        return issues.stream()
+                .sorted(Comparator.comparingInt(ReportingLineIssue::getActualLevel)
+                        .thenComparing(issue -> issue.getEmployee().getId()))
+                .map(ExternalMemoryAnalyzerTest::describe)
+                .toList();
+    }
+
+    private static String describe(ReportingLineIssue issue) {
+        return issue.getEmployee().getId() + "@" + issue.getActualLevel() + "+" + issue.getExcessLevels();
+    }
+}
@@ -69,4 +69,42 @@ class HierarchyBuilderTest {
         assertThrows(IllegalArgumentException.class, () ->
                 builder.buildHierarchy(employees));
     }
+
+    @Test
+    void shouldHashSubtreesByContent() {
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("1", new Employee("1", "Jane", "CEO", 100000, null));
+        employees.put("2", new Employee("2", "John", "Manager", 60000, "1"));
+        employees.put("3", new Employee("3", "Alice", "Worker", 45000, "2"));
+        employees.put("4", new Employee("4", "Bob", "Worker", 47000, "2"));
+        SubtreeHashes hashes = builder.hashSubtrees(builder.buildHierarchy(employees));
+
+        Map<String, Employee> changed = new HashMap<>();
+        changed.put("1", new Employee("1", "Jane", "CEO", 100000, null));
+        changed.put("2", new Employee("2", "John", "Manager", 60000, "1"));
+        changed.put("3", new Employee("3", "Alice", "Worker", 45000, "2"));
+        changed.put("4", new Employee("4", "Bob", "Worker", 48000, "2"));
+        changed.put("5", new Employee("5", "Carl", "Worker", 50000, "1"));
+        SubtreeHashes changedHashes = builder.hashSubtrees(builder.buildHierarchy(changed));
+
+        assertEquals(4, hashes.getSubtreeSize(0));
+        assertEquals(2, hashes.getLevel(positionOf(hashes, "3")));
+        assertEquals(hashOf(hashes, "3"), hashOf(changedHashes, "3"));
+        assertNotEquals(hashOf(hashes, "4"), hashOf(changedHashes, "4"));
+        assertNotEquals(hashOf(hashes, "2"), hashOf(changedHashes, "2"));
+        assertNotEquals(hashOf(hashes, "1"), hashOf(changedHashes, "1"));
+    }
+
+    private static long hashOf(SubtreeHashes hashes, String id) {
+        return hashes.getHash(positionOf(hashes, id));
+    }
+
+    private static int positionOf(SubtreeHashes hashes, String id) {
+        for (int position = 0; position < hashes.size(); position++) {
+            if (hashes.getEmployee(position).getId().equals(id)) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("No employee " + id);
+    }
 }
@@ -0,0 +1,105 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalComplianceAnalyzerTest {
+    private HierarchyBuilder builder;
+    private IncrementalComplianceAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        builder = new HierarchyBuilder();
+        analyzer = new IncrementalComplianceAnalyzer();
+    }
+
+    @Test
+    void shouldReuseUnchangedSubtreesAcrossRuns(@TempDir Path tempDir) throws IOException {
+        Path cacheFile = tempDir.resolve("analysis.cache");
+
+        Map<String, Employee> employees = TestOrganizations.ternaryTree(1000, -1);
+        Employee ceo = builder.buildHierarchy(employees);
+        AnalysisCache cache = AnalysisCache.load(cacheFile);
+        AnalysisResult first = analyzer.analyze(builder.hashSubtrees(ceo), employees, cache);
+        cache.save(cacheFile);
+        assertEquals(0, analyzer.getReusedEmployees());
+        assertEquals(report(new ComplianceAnalyzer().analyze(ceo)), report(first));
+
+        // Change one salary deep in the tree: only the path above it is re-analyzed
+        Map<String, Employee> changed = TestOrganizations.ternaryTree(1000, 700);
+        Employee changedCeo = builder.buildHierarchy(changed);
+        AnalysisCache changedCache = AnalysisCache.load(cacheFile);
+        AnalysisResult second = analyzer.analyze(builder.hashSubtrees(changedCeo), changed, changedCache);
+
+        assertTrue(analyzer.getReusedEmployees() > 500);
+        assertTrue(changedCache.isModified());
+        assertEquals(report(new ComplianceAnalyzer().analyze(changedCeo)), report(second));
+    }
+
+    @Test
+    void shouldServeUnchangedOrganizationFromRootEntry(@TempDir Path tempDir) throws IOException {
+        Path cacheFile = tempDir.resolve("analysis.cache");
+        Map<String, Employee> employees = TestOrganizations.ternaryTree(1000, -1);
+        Employee ceo = builder.buildHierarchy(employees);
+        AnalysisCache cache = AnalysisCache.load(cacheFile);
+        analyzer.analyze(builder.hashSubtrees(ceo), employees, cache);
+        cache.save(cacheFile);
+
+        AnalysisCache reloaded = AnalysisCache.load(cacheFile);
+        AnalysisResult result = analyzer.analyze(builder.hashSubtrees(ceo), employees, reloaded);
+
+        assertEquals(employees.size(), analyzer.getReusedEmployees());
+        assertFalse(reloaded.isModified());
+        assertEquals(report(new ComplianceAnalyzer().analyze(ceo)), report(result));
+    }
+
+    @Test
+    void shouldStoreEachIssueOnceForDeepChains() {
+        // Every employee below level 4 has a reporting line issue
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("0", new Employee("0", "Chief", "Executive", 250000, null));
+        for (int i = 1; i < 2000; i++) {
+            employees.put(String.valueOf(i), new Employee(String.valueOf(i), "First" + i, "Last" + i,
+                    250000 - i * 100, String.valueOf(i - 1)));
+        }
+        Employee ceo = builder.buildHierarchy(employees);
+        AnalysisCache cache = new AnalysisCache();
+        SubtreeHashes hashes = builder.hashSubtrees(ceo);
+        AnalysisResult result = analyzer.analyze(hashes, employees, cache);
+
+        int storedIssues = 0;
+        for (int position = 0; position < hashes.size(); position++) {
+            AnalysisCache.Entry entry = cache.get(AnalysisCache.key(hashes.getHash(position), hashes.getLevel(position)));
+            if (entry != null) {
+                storedIssues += entry.issues().size();
+            }
+        }
+        int reportedIssues = result.getUnderpaidManagers().size() + result.getOverpaidManagers().size()
+                + result.getReportingLineIssues().size();
+        assertEquals(reportedIssues, storedIssues);
+    }
+
+    @Test
+    void shouldIgnoreCachedResultsAtDifferentLevel() {
+        AnalysisCache cache = new AnalysisCache();
+        Map<String, Employee> employees = TestOrganizations.ternaryTree(1000, -1);
+        SubtreeHashes hashes = builder.hashSubtrees(builder.buildHierarchy(employees));
+        analyzer.analyze(hashes, employees, cache);
+
+        assertNotNull(cache.get(AnalysisCache.key(hashes.getHash(0), 0)));
+        assertNull(cache.get(AnalysisCache.key(hashes.getHash(0), 1)));
+    }
+
+    // Report text, so issue order is compared too
+    private static String report(AnalysisResult result) {
+        return new ReportGenerator().generateReport(result);
+    }
+}
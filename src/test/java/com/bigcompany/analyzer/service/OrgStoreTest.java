@@ -0,0 +1,172 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.AnalysisResult;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.ReportingLineIssue;
+import com.bigcompany.analyzer.service.ComplianceAnalyzer.SalaryIssue;
+import com.bigcompany.analyzer.service.OrgStore.Change;
+import com.bigcompany.analyzer.service.OrgStore.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgStoreTest {
+    private OrgStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OrgStore(TestOrganizations.ternaryTree(400, -1));
+    }
+
+    @Test
+    void shouldMatchFullAnalysisAfterSalaryAndManagerChanges() {
+        Snapshot next = store.apply(List.of(
+                Change.salary("4", 10000),
+                Change.salary("0", 80000),
+                Change.manager("13", "2"),   // subtree moves one level up
+                Change.manager("2", "300"))); // subtree moves five levels down
+
+        assertEquals(1, next.getVersion());
+        assertEquals("2", next.getEmployee("13").getManagerId());
+        assertEquals(10000, next.getEmployee("4").getSalary());
+        assertMatchesFullAnalysis(next);
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotUnchanged() {
+        Snapshot before = store.snapshot();
+        AnalysisResult resultBefore = before.getResult();
+
+        Snapshot after = store.apply(List.of(Change.salary("4", 10000), Change.manager("13", "2")));
+
+        assertEquals(0, before.getVersion());
+        assertEquals("4", before.getEmployee("13").getManagerId());
+        assertNotEquals(10000, before.getEmployee("4").getSalary());
+        assertSame(resultBefore, before.getResult());
+        assertMatchesFullAnalysis(before);
+        // Untouched subtrees are shared between versions
+        assertSame(before.getEmployee("300"), after.getEmployee("300"));
+    }
+
+    @Test
+    void shouldApplyBatchesToWideOrganizationQuickly() {
+        // Before copies were built in one pass, every batch here was quadratic in the CEO's fan-out
+        Map<String, Employee> employees = new HashMap<>();
+        employees.put("0", new Employee("0", "Chief", "Executive", 30000, null));
+        for (int i = 1; i <= 100_000; i++) {
+            String id = String.valueOf(i);
+            employees.put(id, new Employee(id, "First" + i, "Last" + i, 30000 + i % 1000, "0"));
+        }
+        employees.put("t", new Employee("t", "Team", "Lead", 50000, "1"));
+        OrgStore wide = new OrgStore(employees);
+
+        Snapshot last = assertTimeout(Duration.ofSeconds(10), () -> {
+            Snapshot snapshot = null;
+            for (int i = 0; i < 100; i++) {
+                snapshot = wide.apply(List.of(Change.salary("t", 20000 + i), Change.manager("t", String.valueOf(1 + i))));
+            }
+            return snapshot;
+        });
+
+        assertEquals("100", last.getEmployee("t").getManagerId());
+        // Includes the CEO's underpaid issue, carried over to this version's CEO
+        assertNotNull(last.getUnderpaidIssue("0"));
+        assertMatchesFullAnalysis(last);
+    }
+
+    @Test
+    void shouldRejectChangesToPublishedEmployees() {
+        Snapshot snapshot = store.snapshot();
+        Employee newcomer = new Employee("999", "New", "Comer", 40000, "0");
+
+        assertThrows(IllegalStateException.class, () -> snapshot.getCeo().addSubordinate(newcomer));
+        assertThrows(IllegalStateException.class, () -> snapshot.getEmployee("300").addSubordinate(newcomer));
+        assertThrows(IllegalStateException.class, () -> store.apply(List.of(Change.salary("4", 10000)))
+                .getEmployee("1").addSubordinate(newcomer));
+    }
+
+    @Test
+    void shouldRejectBatchCreatingCycle() {
+        assertThrows(IllegalArgumentException.class, () ->
+                store.apply(List.of(Change.manager("1", "13"))));
+        assertThrows(IllegalArgumentException.class, () ->
+                store.apply(List.of(Change.salary("5", 1000), Change.manager("0", "1"))));
+        assertEquals(0, store.snapshot().getVersion());
+    }
+
+    @Test
+    void shouldGiveReadersConsistentSnapshotsWhileWriting() throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<Long>> results = Stream.generate(() -> readers.submit(() -> {
+                long checked = 0;
+                do {
+                    Snapshot snapshot = store.snapshot();
+                    // Manager 1 and subordinate 4 always change together after the first batch
+                    if (snapshot.getVersion() > 0) {
+                        assertEquals(snapshot.getEmployee("1").getSalary(), snapshot.getEmployee("4").getSalary() + 1);
+                    }
+                    checked++;
+                } while (writing.get());
+                return checked;
+            })).limit(4).toList();
+
+            store.apply(List.of(Change.salary("1", 50001), Change.salary("4", 50000)));
+            for (int i = 0; i < 200; i++) {
+                store.apply(List.of(Change.salary("1", 60001 + i), Change.salary("4", 60000 + i)));
+            }
+            writing.set(false);
+
+            for (Future<Long> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS) > 0);
+            }
+            assertEquals(201, store.snapshot().getVersion());
+        } finally {
+            writing.set(false);
+            readers.shutdownNow();
+        }
+    }
+
+    /**
+     * Snapshot results are unordered, so issues are compared one by one through the per-employee
+     * lookups; they must refer to the snapshot's own employee instances.
+     */
+    private static void assertMatchesFullAnalysis(Snapshot snapshot) {
+        AnalysisResult expected = new ComplianceAnalyzer().analyze(snapshot.getCeo());
+        AnalysisResult actual = snapshot.getResult();
+
+        assertEquals(expected.getUnderpaidManagers().size(), actual.getUnderpaidManagers().size());
+        for (SalaryIssue issue : expected.getUnderpaidManagers()) {
+            assertSalaryIssueEquals(issue, snapshot.getUnderpaidIssue(issue.getEmployee().getId()));
+        }
+        assertEquals(expected.getOverpaidManagers().size(), actual.getOverpaidManagers().size());
+        for (SalaryIssue issue : expected.getOverpaidManagers()) {
+            assertSalaryIssueEquals(issue, snapshot.getOverpaidIssue(issue.getEmployee().getId()));
+        }
+        assertEquals(expected.getReportingLineIssues().size(), actual.getReportingLineIssues().size());
+        for (ReportingLineIssue issue : expected.getReportingLineIssues()) {
+            ReportingLineIssue stored = snapshot.getReportingLineIssue(issue.getEmployee().getId());
+            assertNotNull(stored, "missing reporting line issue for " + issue.getEmployee());
+            assertSame(issue.getEmployee(), stored.getEmployee());
+            assertEquals(issue.getActualLevel(), stored.getActualLevel());
+        }
+    }
+
+    private static void assertSalaryIssueEquals(SalaryIssue expected, SalaryIssue actual) {
+        assertNotNull(actual, "missing salary issue for " + expected.getEmployee());
+        assertSame(expected.getEmployee(), actual.getEmployee());
+        assertEquals(expected.getExpectedSalary(), actual.getExpectedSalary());
+        assertEquals(expected.getDifference(), actual.getDifference());
+    }
+}
@@ -0,0 +1,69 @@
+package com.bigcompany.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomUpdates() {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < 20000; i++) {
+            String key = String.valueOf(random.nextInt(3000));
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(String.valueOf(key)), map.get(String.valueOf(key)));
+        }
+        Map<String, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void shouldKeepOlderVersionsUnchanged() {
+        PersistentHashMap<String, Integer> first = PersistentHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+        PersistentHashMap<String, Integer> second = first.put("a", 10).remove("b").put("c", 3);
+
+        assertEquals(1, first.get("a"));
+        assertEquals(2, first.get("b"));
+        assertNull(first.get("c"));
+        assertEquals(2, first.size());
+        assertEquals(10, second.get("a"));
+        assertNull(second.get("b"));
+        assertEquals(2, second.size());
+        assertSame(first, first.remove("missing"));
+    }
+
+    @Test
+    void shouldHandleKeysWithEqualHashCodes() {
+        // "Aa" and "BB" have the same String hash code
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+                .put("Aa", 1).put("BB", 2).put("AaAa", 3).put("BBBB", 4).put("AaBB", 5);
+
+        assertEquals(5, map.size());
+        assertEquals(1, map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertEquals(5, map.get("AaBB"));
+
+        PersistentHashMap<String, Integer> removed = map.remove("Aa").remove("AaAa");
+        assertEquals(3, removed.size());
+        assertNull(removed.get("Aa"));
+        assertEquals(2, removed.get("BB"));
+        assertEquals(4, removed.get("BBBB"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportingChainIndexTest {
+    private Employee ceo;
+    private Employee sales;
+    private Employee engineering;
+    private Employee backend;
+    private Employee developer;
+    private Employee seller;
+    private ReportingChainIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ceo = new Employee("1", "Jane", "CEO", 200000, null);
+        sales = new Employee("2", "Sam", "Sales", 120000, "1");
+        engineering = new Employee("3", "Eve", "Engineering", 130000, "1");
+        backend = new Employee("4", "Bo", "Backend", 100000, "3");
+        developer = new Employee("5", "Dan", "Developer", 80000, "4");
+        seller = new Employee("6", "Sue", "Seller", 60000, "2");
+
+        ceo.addSubordinate(sales);
+        ceo.addSubordinate(engineering);
+        engineering.addSubordinate(backend);
+        backend.addSubordinate(developer);
+        sales.addSubordinate(seller);
+
+        index = new ReportingChainIndex(ceo);
+    }
+
+    @Test
+    void shouldReturnReportingChainUpToCeo() {
+        assertEquals(List.of(backend, engineering, ceo), index.getReportingChain("5"));
+        assertTrue(index.getReportingChain("1").isEmpty());
+        assertEquals(3, index.getLevel("5"));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void shouldReturnKthManager() {
+        assertEquals(developer, index.getManager("5", 0));
+        assertEquals(backend, index.getManager("5", 1));
+        assertEquals(ceo, index.getManager("5", 3));
+        assertNull(index.getManager("5", 4));
+    }
+
+    @Test
+    void shouldFindLowestCommonManagerAndDistance() {
+        assertEquals(ceo, index.getLowestCommonManager("5", "6"));
+        assertEquals(5, index.getDistance("5", "6"));
+        assertEquals(engineering, index.getLowestCommonManager("3", "5"));
+        assertEquals(2, index.getDistance("5", "3"));
+        assertEquals(developer, index.getLowestCommonManager("5", "5"));
+        assertEquals(0, index.getDistance("5", "5"));
+    }
+
+    @Test
+    void shouldMatchUpwardWalkOnDeepHierarchy() {
+        Employee root = new Employee("0", "Root", "Chain", 100000, null);
+        Employee[] chain = new Employee[1000];
+        Employee previous = root;
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = new Employee("c" + i, "Chain", "Member", 50000, previous.getId());
+            previous.addSubordinate(chain[i]);
+            previous = chain[i];
+        }
+        Employee branch = new Employee("b", "Side", "Branch", 50000, "c499");
+        chain[499].addSubordinate(branch);
+
+        ReportingChainIndex deepIndex = new ReportingChainIndex(root);
+
+        assertEquals(chain[499], deepIndex.getLowestCommonManager("c999", "b"));
+        assertEquals(501, deepIndex.getDistance("c999", "b"));
+        assertEquals(chain[0], deepIndex.getManager("c999", 999));
+        assertEquals(1000, deepIndex.getReportingChain("c999").size());
+    }
+
+    @Test
+    void shouldThrowExceptionForUnknownEmployee() {
+        assertThrows(IllegalArgumentException.class, () ->
+                index.getLowestCommonManager("1", "999"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.bigcompany.analyzer.service;
+
+import com.bigcompany.analyzer.model.Employee;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Synthetic organizations shared by the analyzer tests.
+ */
+final class TestOrganizations {
+
+    private TestOrganizations() {
+    }
+
+    /**
+     * A CEO ("0") and employees "1".."size - 1", each reporting to employee (i - 1) / 3, so the
+     * tree is about log3(size) levels deep. Salaries are spread over 30000..119999 so there are
+     * underpaid, overpaid and reporting line issues; {@code raisedEmployee} (or -1 for none)
+     * earns 5000 more.
+     */
+    static Map<String, Employee> ternaryTree(int size, int raisedEmployee) {
+        Map<String, Employee> employees = new LinkedHashMap<>();
+        employees.put("0", new Employee("0", "Chief", "Executive", 250000, null));
+        for (int i = 1; i < size; i++) {
+            double salary = 30000 + (i * 7919L) % 90000 + (i == raisedEmployee ? 5000 : 0);
+            String id = String.valueOf(i);
+            employees.put(id, new Employee(id, "First" + i, "Last" + i, salary, String.valueOf((i - 1) / 3)));
+        }
+        return employees;
+    }
+
+    /**
+     * Writes the employees in the format read by {@link EmployeeParser}.
+     */
+    static void writeCsv(Map<String, Employee> employees, Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (Employee employee : employees.values()) {
+            csv.append(employee.getId()).append(',').append(employee.getFirstName()).append(',')
+                    .append(employee.getLastName()).append(',').append(employee.getSalary()).append(',')
+                    .append(employee.isCeo() ? "" : employee.getManagerId()).append('\n');
+        }
+        Files.writeString(file, csv);
+    }
+}